@@ -22,16 +22,126 @@ public class Aperture {
 			2, 2.2, 2.5, 2.8, 3.2, 3.5, 4, 4.5, 5.0, 5.6, 6.3, 7.1, 8, 9, 10,
 			11, 13, 14, 16, 18, 20, 22, 25, 29, 32 };
 
+	/**
+	 * Exact f-numbers, 2^(step * stopMultiplier / 2), for each entry of
+	 * FULL_STEPS, HALF_STEPS, and THIRD_STEPS. Built the first time they are
+	 * needed.
+	 */
+	private static double[] exactFullSteps;
+	private static double[] exactHalfSteps;
+	private static double[] exactThirdSteps;
+
 	private double stopMultiplier;
 
 	public Aperture() {
 		setThirdStop();
 	}
 
+	/**
+	 * Get the exact f-number of the given step of the current stop scale.
+	 * 
+	 * @param step
+	 *            int index into {@link #getFormattedApertures()}
+	 * @return double exact f-number
+	 */
 	public double calculateAperture(int step) {
+		double[] apertures = getExactApertures();
+
+		if (step >= 0 && step < apertures.length) {
+			return apertures[step];
+		}
+
 		return MathUtility.pow(2, (step * getStopMultiplier() * 0.5));
 	}
 
+	/**
+	 * @return int number of steps in the current stop scale
+	 */
+	public int getStepCount() {
+		return getFormattedApertures().length;
+	}
+
+	/**
+	 * @return array of exact f-numbers, one for each of
+	 *         {@link #getFormattedApertures()}; shared by every instance, so
+	 *         never handed out
+	 */
+	private double[] getExactApertures() {
+		if (isFullStop()) {
+			if (exactFullSteps == null) {
+				exactFullSteps = createExactApertures(FULL_STEPS.length,
+						FULL_STOP);
+			}
+
+			return exactFullSteps;
+		} else if (isHalfStop()) {
+			if (exactHalfSteps == null) {
+				exactHalfSteps = createExactApertures(HALF_STEPS.length,
+						HALF_STOP);
+			}
+
+			return exactHalfSteps;
+		} else {
+			if (exactThirdSteps == null) {
+				exactThirdSteps = createExactApertures(THIRD_STEPS.length,
+						THIRD_STOP);
+			}
+
+			return exactThirdSteps;
+		}
+	}
+
+	/**
+	 * @param length
+	 *            int number of steps
+	 * @param stopMultiplier
+	 *            double fraction of a stop between steps
+	 * @return array of exact f-numbers
+	 */
+	private static double[] createExactApertures(int length,
+			double stopMultiplier) {
+		double[] apertures = new double[length];
+
+		for (int i = 0; i < length; i++) {
+			apertures[i] = MathUtility.pow(2, (i * stopMultiplier * 0.5));
+		}
+
+		return apertures;
+	}
+
+	/**
+	 * Find the step of the current stop scale nearest to the given f-number.
+	 * Nearness is measured in stops, so the boundary between two steps is
+	 * their geometric mean.
+	 * 
+	 * @param fNumber
+	 *            double f-number
+	 * @return int index into {@link #getFormattedApertures()}
+	 */
+	public int nearestStep(double fNumber) {
+		double[] apertures = getExactApertures();
+		int low = 0;
+		int high = apertures.length - 1;
+
+		// find the last step not above fNumber
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+
+			if (apertures[middle] <= fNumber) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+
+		if (low + 1 < apertures.length
+				&& fNumber * fNumber > apertures[low] * apertures[low + 1]) {
+			return low + 1;
+		}
+
+		return low;
+	}
+
 	public double[] getFormattedApertures() {
 		if (isFullStop()) {
 			return FULL_STEPS;
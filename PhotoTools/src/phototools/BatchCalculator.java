@@ -0,0 +1,93 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools;
+
+/**
+ * Calculate the depth of field of many photos taken with one camera at once,
+ * for printed tables and other tools. The inputs and results are parallel
+ * arrays, one element per photo, so nothing is allocated per photo and each
+ * loop only does arithmetic on array elements.
+ * 
+ * The formulas are those of {@link Photo}, so every result equals the value
+ * Photo calculates for the same inputs, except that all distances are in
+ * millimeters. As in Photo, a far limit beyond the hyperfocal distance is
+ * negative and stands for infinity.
+ */
+public class BatchCalculator {
+	/**
+	 * Calculate the hyperfocal distance and the depth of field near and far
+	 * limits of count photos, and their field of view if the arrays for it
+	 * are given.
+	 * 
+	 * @param camera
+	 *            Camera taking every photo
+	 * @param focalLengths
+	 *            int[] focal lengths in millimeters
+	 * @param apertures
+	 *            double[] f-numbers
+	 * @param focusDistances
+	 *            double[] focus distances in millimeters
+	 * @param offset
+	 *            int index of the first photo in every array
+	 * @param count
+	 *            int number of photos
+	 * @param hyperfocalDistances
+	 *            double[] filled in with the hyperfocal distances
+	 * @param nearLimits
+	 *            double[] filled in with the depth of field near limits
+	 * @param farLimits
+	 *            double[] filled in with the depth of field far limits,
+	 *            negative if infinite
+	 * @param fieldOfViewWidths
+	 *            double[] filled in with the horizontal fields of view, or
+	 *            null
+	 * @param fieldOfViewHeights
+	 *            double[] filled in with the vertical fields of view, or null
+	 */
+	public static void calculate(Camera camera, int[] focalLengths,
+			double[] apertures, double[] focusDistances, int offset,
+			int count, double[] hyperfocalDistances, double[] nearLimits,
+			double[] farLimits, double[] fieldOfViewWidths,
+			double[] fieldOfViewHeights) {
+		double circleOfConfusion = camera.getCircleOfConfusion();
+		int end = offset + count;
+
+		for (int i = offset; i < end; i++) {
+			double focalLength = focalLengths[i];
+			double aperture = apertures[i];
+			double focusDistance = focusDistances[i];
+			double hyperfocalDistance = (focalLength * focalLength)
+					/ (aperture * circleOfConfusion) + focalLength;
+			double dividend = focusDistance * (hyperfocalDistance - aperture);
+
+			hyperfocalDistances[i] = hyperfocalDistance;
+			nearLimits[i] = dividend
+					/ (hyperfocalDistance + focusDistance - (2 * aperture));
+			farLimits[i] = dividend / (hyperfocalDistance - focusDistance);
+		}
+
+		if (fieldOfViewWidths == null || fieldOfViewHeights == null) {
+			return;
+		}
+
+		double frameWidth = camera.getFrameWidth();
+		double frameHeight = camera.getFrameHeight();
+
+		for (int i = offset; i < end; i++) {
+			double focalLength = focalLengths[i];
+			double magnification = focalLength
+					/ (focusDistances[i] - focalLength);
+
+			fieldOfViewWidths[i] = frameWidth / magnification;
+			fieldOfViewHeights[i] = frameHeight / magnification;
+		}
+	}
+
+	/**
+	 * Cannot instantiate, use static methods
+	 */
+	private BatchCalculator() {
+		super();
+	}
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Read cameras from the binary resource compiled from cameras.xml at build
+ * time:
+ * 
+ * <pre>
+ * int    MAGIC
+ * byte   VERSION
+ * int    number of cameras
+ * RECORD_SIZE bytes for each camera:
+ *   int    offset of the model name in the string pool
+ *   double circle of confusion
+ *   double frame width
+ *   double frame height
+ * string pool: each model name as written by DataOutputStream.writeUTF, in
+ *   camera order
+ * </pre>
+ * 
+ * The records have a fixed size, so a camera is found by skipping straight
+ * to it instead of parsing the cameras before it.
+ */
+public class BinaryCameraDatabase extends CameraDatabase {
+	public static final int MAGIC = 0x50544342;
+	public static final byte VERSION = 1;
+
+	/** Bytes before the first record */
+	public static final int HEADER_SIZE = 9;
+
+	/** Bytes in each record */
+	public static final int RECORD_SIZE = 28;
+
+	/**
+	 * @param resource
+	 *            String name of the binary resource, such as "/cameras.bin"
+	 */
+	public BinaryCameraDatabase(String resource) {
+		super(resource);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see phototools.CameraDatabase#readCount()
+	 */
+	public int readCount() throws IOException {
+		DataInputStream in = new DataInputStream(open());
+
+		try {
+			return readHeader(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see phototools.CameraDatabase#readModels(int, int)
+	 */
+	public String[] readModels(int start, int count) throws IOException {
+		DataInputStream in = new DataInputStream(open());
+
+		try {
+			int total = readHeader(in);
+
+			if (start < 0 || start > total) {
+				throw new IOException("no camera " + start + " in "
+						+ getResource());
+			}
+
+			String[] models = new String[Math.min(count, total - start)];
+
+			if (models.length > 0) {
+				// the names are pooled in camera order, so find the first
+				// and read on from there
+				skip(in, (long) start * RECORD_SIZE);
+
+				int nameOffset = in.readInt();
+
+				skip(in, (long) (total - start) * RECORD_SIZE - 4 + nameOffset);
+
+				for (int i = 0; i < models.length; i++) {
+					models[i] = in.readUTF();
+				}
+			}
+
+			return models;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Read every camera in a single pass: all of the records, then the names
+	 * from the string pool.
+	 * 
+	 * @see phototools.CameraDatabase#readCameras()
+	 */
+	public Camera[] readCameras() throws IOException {
+		DataInputStream in = new DataInputStream(open());
+
+		try {
+			int count = readHeader(in);
+			double[] values = new double[count * 3];
+
+			for (int i = 0; i < count; i++) {
+				// the names are pooled in camera order, so the offsets are
+				// not needed
+				in.readInt();
+				values[i * 3] = in.readDouble();
+				values[i * 3 + 1] = in.readDouble();
+				values[i * 3 + 2] = in.readDouble();
+			}
+
+			Camera[] cameras = new Camera[count];
+
+			for (int i = 0; i < count; i++) {
+				cameras[i] = new Camera(in.readUTF(), values[i * 3],
+						values[i * 3 + 1], values[i * 3 + 2]);
+			}
+
+			return cameras;
+		} finally {
+			in.close();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see phototools.CameraDatabase#readCamera(int)
+	 */
+	public Camera readCamera(int index) throws IOException {
+		DataInputStream in = new DataInputStream(open());
+
+		try {
+			int count = readHeader(in);
+
+			if (index < 0 || index >= count) {
+				throw new IOException("no camera " + index + " in "
+						+ getResource());
+			}
+
+			skip(in, (long) index * RECORD_SIZE);
+
+			int nameOffset = in.readInt();
+			double circleOfConfusion = in.readDouble();
+			double frameWidth = in.readDouble();
+			double frameHeight = in.readDouble();
+
+			skip(in, (long) (count - index - 1) * RECORD_SIZE + nameOffset);
+
+			return new Camera(in.readUTF(), circleOfConfusion, frameWidth,
+					frameHeight);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * @param in
+	 *            DataInputStream at the start of the resource
+	 * @return int number of cameras
+	 * @throws IOException
+	 *             if the resource is not a binary camera database
+	 */
+	private int readHeader(DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+			throw new IOException(getResource()
+					+ " is not a binary camera database");
+		}
+
+		return in.readInt();
+	}
+
+	/**
+	 * DataInputStream.skip may skip fewer bytes than asked, so keep skipping.
+	 * 
+	 * @param in
+	 *            DataInputStream
+	 * @param bytes
+	 *            long number of bytes to skip
+	 * @throws IOException
+	 *             if the stream ends first
+	 */
+	private static void skip(DataInputStream in, long bytes)
+			throws IOException {
+		while (bytes > 0) {
+			long skipped = in.skip(bytes);
+
+			if (skipped <= 0) {
+				// skip may give up without being at the end, so check
+				in.readByte();
+				skipped = 1;
+			}
+
+			bytes -= skipped;
+		}
+	}
+}
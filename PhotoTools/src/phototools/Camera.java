@@ -5,7 +5,8 @@ package phototools;
 
 /**
  * Store data concerning a camera including the model name and circle of
- * confusion.
+ * confusion. Cameras are immutable, so the instances held by the
+ * {@link CameraRegistry} can be shared.
  */
 public class Camera {
 	private String model;
@@ -25,25 +26,24 @@ public class Camera {
 	}
 
 	/**
-	 * @return all possible cameras
+	 * @return all possible cameras which could be read; do not modify the
+	 *         array, it may be shared
 	 * 
-	 * @see Sensor sizes taken from
-	 *      http://en.wikipedia.org/wiki/Image_sensor_format
-	 *      #Table_of_sensor_sizes
-	 * @see Circle of confusion taken from http://www.dofmaster.com/dofjs.html
+	 * @see CameraRegistry#getCameras()
 	 */
 	public static Camera[] getCameras() {
-		Camera[] cameras = new Camera[4];
-		cameras[0] = new Camera("Canon APS-C", 0.019, 22.2, 14.8);
-		cameras[1] = new Camera("Canon APS-H", 0.023, 28.7, 19.1);
-		cameras[2] = new Camera("Nikon DX", 0.02, 23.6, 15.5);
-		cameras[3] = new Camera("Full Frame", 0.03, 36, 24);
-
-		return cameras;
+		return CameraRegistry.getCameras();
 	}
 
+	/**
+	 * @param index
+	 *            int index of the camera
+	 * @return shared Camera at index, or null if it could not be read
+	 * 
+	 * @see CameraRegistry#getCamera(int)
+	 */
 	public static Camera selectCamera(int index) {
-		return getCameras()[index];
+		return CameraRegistry.getCamera(index);
 	}
 
 	/**
@@ -109,7 +109,7 @@ public class Camera {
 	 * @param circleOfConfusion
 	 *            the circleOfConfusion to set in millimeters
 	 */
-	public void setCircleOfConfusion(double circleOfConfusion) {
+	private void setCircleOfConfusion(double circleOfConfusion) {
 		this.circleOfConfusion = circleOfConfusion;
 	}
 
@@ -117,7 +117,7 @@ public class Camera {
 	 * @param frameHeight
 	 *            the frameHeight to set in millimeters
 	 */
-	public void setFrameHeight(double frameHeight) {
+	private void setFrameHeight(double frameHeight) {
 		this.frameHeight = frameHeight;
 	}
 
@@ -125,7 +125,7 @@ public class Camera {
 	 * @param frameWidth
 	 *            the frameWidth to set in millimeters
 	 */
-	public void setFrameWidth(double frameWidth) {
+	private void setFrameWidth(double frameWidth) {
 		this.frameWidth = frameWidth;
 	}
 
@@ -133,7 +133,7 @@ public class Camera {
 	 * @param model
 	 *            the model to set
 	 */
-	public void setModel(String model) {
+	private void setModel(String model) {
 		this.model = model;
 	}
 
@@ -0,0 +1,114 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Read cameras from a resource bundled in the jar. Model names can be read on
+ * their own, a page at a time, so the list of cameras can be offered without
+ * reading the rest of every camera, and a single camera can be read by its
+ * index.
+ */
+public abstract class CameraDatabase {
+	private final String resource;
+
+	/**
+	 * @param resource
+	 *            String name of the resource
+	 */
+	protected CameraDatabase(String resource) {
+		this.resource = resource;
+	}
+
+	/**
+	 * @return int number of cameras
+	 * @throws IOException
+	 *             if the resource is missing, cannot be read, or is not a
+	 *             camera database
+	 */
+	public abstract int readCount() throws IOException;
+
+	/**
+	 * Read the model names of a range of cameras, in order.
+	 * 
+	 * @param start
+	 *            int index of the first camera
+	 * @param count
+	 *            int number of cameras, fewer are read if the database ends
+	 *            first
+	 * @return array of String model names
+	 * @throws IOException
+	 *             if the resource is missing, cannot be read, or is not a
+	 *             camera database
+	 */
+	public abstract String[] readModels(int start, int count)
+			throws IOException;
+
+	/**
+	 * Read the model name of every camera, in order.
+	 * 
+	 * @return array of String model names
+	 * @throws IOException
+	 *             if the resource is missing, cannot be read, or is not a
+	 *             camera database
+	 */
+	public String[] readModels() throws IOException {
+		return readModels(0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Read a single camera.
+	 * 
+	 * @param index
+	 *            int index of the camera, in the order of
+	 *            {@link #readModels()}
+	 * @return Camera
+	 * @throws IOException
+	 *             if the resource is missing, cannot be read, is not a camera
+	 *             database, or has no camera at index
+	 */
+	public abstract Camera readCamera(int index) throws IOException;
+
+	/**
+	 * Read every camera, in order.
+	 * 
+	 * @return array of Camera
+	 * @throws IOException
+	 *             if the resource is missing, cannot be read, or is not a
+	 *             camera database
+	 */
+	public Camera[] readCameras() throws IOException {
+		Camera[] cameras = new Camera[readModels().length];
+
+		for (int i = 0; i < cameras.length; i++) {
+			cameras[i] = readCamera(i);
+		}
+
+		return cameras;
+	}
+
+	/**
+	 * @return String name of the resource
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * @return InputStream of the resource
+	 * @throws IOException
+	 *             if the resource is missing
+	 */
+	protected InputStream open() throws IOException {
+		InputStream in = getClass().getResourceAsStream(resource);
+
+		if (in == null) {
+			throw new IOException("missing " + resource);
+		}
+
+		return in;
+	}
+}
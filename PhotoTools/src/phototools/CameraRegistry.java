@@ -0,0 +1,324 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools;
+
+import java.io.IOException;
+
+import phototools.utility.IntHashtable;
+import phototools.utility.KeypadTrie;
+
+/**
+ * Hold the one list of known cameras. Only the number of cameras is read from
+ * the camera database when the class is loaded. Model names are read a page
+ * at a time as they are shown, and only the current page is kept; each
+ * camera's circle of confusion and frame size are only read the first time
+ * that camera is asked for, and the cameras read are then shared by every
+ * caller. {@link Camera} is immutable so sharing is safe.
+ * 
+ * The database compiled at build time, {@link #BINARY_RESOURCE}, is preferred
+ * over {@link #XML_RESOURCE}. If neither can be read the built in cameras are
+ * used.
+ */
+public class CameraRegistry {
+	private static final String BINARY_RESOURCE = "/cameras.bin";
+	private static final String XML_RESOURCE = "/cameras.xml";
+
+	/** Number of model names read from the database at a time */
+	private static final int PAGE_SIZE = 16;
+
+	/**
+	 * @see Sensor sizes taken from
+	 *      http://en.wikipedia.org/wiki/Image_sensor_format
+	 *      #Table_of_sensor_sizes
+	 * @see Circle of confusion taken from http://www.dofmaster.com/dofjs.html
+	 */
+	private static final Camera[] BUILT_IN_CAMERAS = {
+			new Camera("Canon APS-C", 0.019, 22.2, 14.8),
+			new Camera("Canon APS-H", 0.023, 28.7, 19.1),
+			new Camera("Nikon DX", 0.02, 23.6, 15.5),
+			new Camera("Full Frame", 0.03, 36, 24) };
+
+	/** Database to read cameras from, null when using the built in ones */
+	private static CameraDatabase database;
+
+	private static int count;
+
+	/** Cameras read so far, each null until first asked for */
+	private static Camera[] cameras;
+
+	/** Index of the first model in page */
+	private static int pageStart;
+
+	/** Model names most recently read, empty until the first is asked for */
+	private static String[] page = new String[0];
+
+	/**
+	 * Model name hash code to index, built the first time a camera is looked
+	 * up by model name
+	 */
+	private static IntHashtable indexes;
+
+	/** Keypad search over models, built the first time it is used */
+	private static KeypadTrie keypadTrie;
+
+	static {
+		CameraDatabase[] databases = {
+				new BinaryCameraDatabase(BINARY_RESOURCE),
+				new XmlCameraDatabase(XML_RESOURCE) };
+
+		for (int i = 0; i < databases.length && database == null; i++) {
+			try {
+				count = databases[i].readCount();
+
+				if (count > 0) {
+					database = databases[i];
+				}
+			} catch (IOException e) {
+				// try the next one
+			}
+		}
+
+		if (database == null) {
+			count = BUILT_IN_CAMERAS.length;
+			cameras = BUILT_IN_CAMERAS;
+		} else {
+			cameras = new Camera[count];
+		}
+	}
+
+	/**
+	 * Read every camera not read yet, in a single pass over the database.
+	 * Prefer {@link #getModel(int)} and {@link #getCamera(int)}, which do not.
+	 * 
+	 * @return every camera which could be read; the array is shared unless
+	 *         some could not be, do not modify it
+	 */
+	public static synchronized Camera[] getCameras() {
+		int read = countRead();
+
+		if (read == count) {
+			return cameras;
+		}
+
+		try {
+			Camera[] all = database.readCameras();
+
+			for (int i = 0; i < count && i < all.length; i++) {
+				if (cameras[i] == null) {
+					cameras[i] = all[i];
+				}
+			}
+
+			read = countRead();
+		} catch (IOException e) {
+			// keep those read so far, and built in ones below
+		}
+
+		if (read == count) {
+			return cameras;
+		}
+
+		Camera[] readable = new Camera[count];
+		int size = 0;
+
+		for (int i = 0; i < count; i++) {
+			Camera camera = getCamera(i);
+
+			if (camera != null) {
+				readable[size++] = camera;
+			}
+		}
+
+		Camera[] result = new Camera[size];
+		System.arraycopy(readable, 0, result, 0, size);
+
+		return result;
+	}
+
+	/**
+	 * @return int number of cameras read so far
+	 */
+	private static int countRead() {
+		int read = 0;
+
+		for (int i = 0; i < count; i++) {
+			if (cameras[i] != null) {
+				read++;
+			}
+		}
+
+		return read;
+	}
+
+	/**
+	 * Get the model name of the camera at index, reading the page of model
+	 * names around it if it is not the current page. Walking the cameras in
+	 * order reads each page once.
+	 * 
+	 * @param index
+	 *            int index of the camera
+	 * @return String model name, or null if it could not be read
+	 */
+	public static synchronized String getModel(int index) {
+		if (cameras[index] != null) {
+			return cameras[index].getModel();
+		}
+
+		if (index < pageStart || index >= pageStart + page.length) {
+			int start = index - index % PAGE_SIZE;
+
+			try {
+				page = database.readModels(start, PAGE_SIZE);
+				pageStart = start;
+			} catch (IOException e) {
+				return null;
+			}
+		}
+
+		// the database may hold fewer names than it counted
+		if (index - pageStart >= page.length) {
+			return null;
+		}
+
+		return page[index - pageStart];
+	}
+
+	/**
+	 * @return int number of cameras
+	 */
+	public static int size() {
+		return count;
+	}
+
+	/**
+	 * Get the camera at index, reading it the first time. If it cannot be
+	 * read, the built in camera of the same model is used instead, but not
+	 * kept, so the next call tries to read it again.
+	 * 
+	 * @param index
+	 *            int index of the camera
+	 * @return Camera at index, or null if it could not be read and there is
+	 *         no built in camera of its model
+	 */
+	public static synchronized Camera getCamera(int index) {
+		Camera camera = cameras[index];
+
+		if (camera == null) {
+			try {
+				camera = database.readCamera(index);
+				cameras[index] = camera;
+			} catch (IOException e) {
+				camera = getBuiltInCamera(getModel(index));
+			}
+		}
+
+		return camera;
+	}
+
+	/**
+	 * @param model
+	 *            String model name
+	 * @return Camera with the model name, or null if there is none or it
+	 *         could not be read
+	 */
+	public static Camera getCamera(String model) {
+		int index = indexOf(model);
+
+		return index < 0 ? null : getCamera(index);
+	}
+
+	/**
+	 * Find a camera by model name. The first call reads every model name
+	 * once, a page at a time, but keeps only their hash codes. A match is
+	 * confirmed against the camera itself, which is read once and then kept,
+	 * so later lookups of the same model read nothing.
+	 * 
+	 * @param model
+	 *            String model name
+	 * @return int index of the camera with the model name, or -1 if there is
+	 *         none
+	 */
+	public static synchronized int indexOf(String model) {
+		if (indexes == null) {
+			indexes = new IntHashtable(count);
+
+			for (int i = 0; i < count; i++) {
+				String name = getModel(i);
+
+				if (name != null) {
+					indexes.put(name.hashCode(), i);
+				}
+			}
+		}
+
+		int hashCode = model.hashCode();
+
+		// several models may share a hash code
+		for (int slot = indexes.first(hashCode); slot != -1; slot = indexes
+				.next(hashCode, slot)) {
+			int index = indexes.valueAt(slot);
+			Camera camera = getCamera(index);
+
+			if (camera != null && model.equals(camera.getModel())) {
+				return index;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Find the first camera whose model is spelled by the given keypad
+	 * digits, so "226" finds "Canon APS-C". Takes time proportional to the
+	 * number of digits, not the number of cameras. The first call reads every
+	 * model name once, a page at a time, but keeps only the trie.
+	 * 
+	 * @param digits
+	 *            String of keypad digits
+	 * @return int index of the camera, or -1 if there is none
+	 * 
+	 * @see KeypadTrie
+	 */
+	public static synchronized int findByKeypad(String digits) {
+		if (keypadTrie == null) {
+			keypadTrie = new KeypadTrie();
+
+			for (int i = 0; i < count; i++) {
+				String model = getModel(i);
+
+				if (model != null) {
+					keypadTrie.add(model, i);
+				}
+			}
+
+			keypadTrie.compact();
+		}
+
+		return keypadTrie.find(digits);
+	}
+
+	/**
+	 * Substitute for a camera which could not be read.
+	 * 
+	 * @param model
+	 *            String model name
+	 * @return built in Camera with the model name, or null if there is none
+	 */
+	private static Camera getBuiltInCamera(String model) {
+		for (int i = 0; i < BUILT_IN_CAMERAS.length; i++) {
+			if (BUILT_IN_CAMERAS[i].getModel().equals(model)) {
+				return BUILT_IN_CAMERAS[i];
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Cannot instantiate, use static methods
+	 */
+	private CameraRegistry() {
+		super();
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools;
+
+/**
+ * Every value derived from a {@link Photo}, filled in by a single call to
+ * {@link Photo#calculateAll(DepthOfFieldResult)}. Distances are in meters or
+ * feet depending on {@link Photo#isMetric()}, angles are in degrees.
+ * 
+ * One instance can be reused for every calculation to avoid allocating.
+ */
+public class DepthOfFieldResult {
+	double hyperfocalDistance;
+	double halfHyperfocalDistance;
+	double depthOfFieldNearLimit;
+	double depthOfFieldFarLimit;
+	double depthOfFieldBefore;
+	double depthOfFieldBehind;
+	double magnification;
+	double fieldOfViewHorizontal;
+	double fieldOfViewVertical;
+	double fieldOfViewDiagonal;
+	double angleOfViewHorizontal;
+	double angleOfViewVertical;
+	double angleOfViewDiagonal;
+
+	/**
+	 * @return the hyperfocal distance
+	 * @see Photo#calculateHyperfocalDistance()
+	 */
+	public double getHyperfocalDistance() {
+		return hyperfocalDistance;
+	}
+
+	/**
+	 * @return half the hyperfocal distance
+	 * @see Photo#calculateHalfHyperfocalDistance()
+	 */
+	public double getHalfHyperfocalDistance() {
+		return halfHyperfocalDistance;
+	}
+
+	/**
+	 * @return the depth of field near limit
+	 * @see Photo#calculateDepthOfFieldNearLimit()
+	 */
+	public double getDepthOfFieldNearLimit() {
+		return depthOfFieldNearLimit;
+	}
+
+	/**
+	 * @return the depth of field far limit
+	 * @see Photo#calculateDepthOfFieldFarLimit()
+	 */
+	public double getDepthOfFieldFarLimit() {
+		return depthOfFieldFarLimit;
+	}
+
+	/**
+	 * @return the distance before the focus distance within depth of field
+	 * @see Photo#calculateDepthOfFieldBefore()
+	 */
+	public double getDepthOfFieldBefore() {
+		return depthOfFieldBefore;
+	}
+
+	/**
+	 * @return the distance behind the focus distance within depth of field
+	 * @see Photo#calculateDepthOfFieldBehind()
+	 */
+	public double getDepthOfFieldBehind() {
+		return depthOfFieldBehind;
+	}
+
+	/**
+	 * @return the magnification
+	 * @see Photo#calculateMagnification()
+	 */
+	public double getMagnification() {
+		return magnification;
+	}
+
+	/**
+	 * @return the field of view width
+	 * @see Photo#calculateFieldOfViewHorizontal()
+	 */
+	public double getFieldOfViewHorizontal() {
+		return fieldOfViewHorizontal;
+	}
+
+	/**
+	 * @return the field of view height
+	 * @see Photo#calculateFieldOfViewVertical()
+	 */
+	public double getFieldOfViewVertical() {
+		return fieldOfViewVertical;
+	}
+
+	/**
+	 * @return the field of view diagonal
+	 * @see Photo#calculateFieldOfViewDiagonal()
+	 */
+	public double getFieldOfViewDiagonal() {
+		return fieldOfViewDiagonal;
+	}
+
+	/**
+	 * @return the horizontal angle of view in degrees
+	 * @see Photo#calculateAngleOfViewHorizontal()
+	 */
+	public double getAngleOfViewHorizontal() {
+		return angleOfViewHorizontal;
+	}
+
+	/**
+	 * @return the vertical angle of view in degrees
+	 * @see Photo#calculateAngleOfViewVertical()
+	 */
+	public double getAngleOfViewVertical() {
+		return angleOfViewVertical;
+	}
+
+	/**
+	 * @return the diagonal angle of view in degrees
+	 * @see Photo#calculateAngleOfViewDiagonal()
+	 */
+	public double getAngleOfViewDiagonal() {
+		return angleOfViewDiagonal;
+	}
+}
\ No newline at end of file
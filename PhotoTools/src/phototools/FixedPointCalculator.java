@@ -0,0 +1,200 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools;
+
+import phototools.utility.FixedPoint;
+
+/**
+ * Calculate the same values as {@link Photo#calculateAll(DepthOfFieldResult)}
+ * using {@link FixedPoint} integer arithmetic, for handsets which emulate
+ * double in software. The inputs are converted to fixed point once and the
+ * results, still in millimeters, back to meters or feet once; everything in
+ * between is integer math.
+ * 
+ * The circle of confusion is kept with 24 fraction bits as it is much smaller
+ * than one millimeter. The magnification is kept with 32 fraction bits for
+ * the same reason.
+ */
+public class FixedPointCalculator {
+	/** Fixed point millimeters per meter, as a double */
+	private static final double METER_SCALE = (double) FixedPoint.ONE * 1000;
+
+	/** Fixed point millimeters per foot, as a double */
+	private static final double FOOT_SCALE = (double) FixedPoint.ONE * 304.8;
+
+	private static final int CIRCLE_OF_CONFUSION_BITS = 24;
+	private static final int MAGNIFICATION_BITS = 32;
+
+	/**
+	 * Largest focus distance, 10 kilometers, for which no intermediate value
+	 * overflows.
+	 */
+	private static final long MAXIMUM_FOCUS_DISTANCE = FixedPoint
+			.fromInt(10000000);
+
+	/**
+	 * Largest depth of field behind the focus distance, 2^40 millimeters,
+	 * beyond which the far limit is reported as infinite.
+	 */
+	private static final long MAXIMUM_DEPTH_OF_FIELD = 1L << (40 + FixedPoint.FRACTION_BITS);
+
+	private static final int MAXIMUM_FOCAL_LENGTH = 2000;
+	private static final double MINIMUM_APERTURE = 1;
+	private static final double MAXIMUM_APERTURE = 1000;
+
+	/**
+	 * Largest frame size, so the frame times the focus distance stays below
+	 * 2^31.
+	 */
+	private static final double MAXIMUM_FRAME_SIZE = 150;
+
+	/**
+	 * Calculate every derived value of the photo in fixed point.
+	 * 
+	 * A far limit too large to represent is reported like one beyond the
+	 * hyperfocal distance, as a negative number, which is displayed as
+	 * infinity.
+	 * 
+	 * @param photo
+	 *            Photo to calculate
+	 * @param result
+	 *            DepthOfFieldResult to fill in
+	 * @return boolean false, leaving the result untouched, if the inputs are
+	 *         outside the range fixed point can represent
+	 */
+	public static boolean calculateAll(Photo photo, DepthOfFieldResult result) {
+		Camera camera = photo.getCamera();
+
+		if (photo.getFocalLength() <= 0
+				|| photo.getFocalLength() > MAXIMUM_FOCAL_LENGTH
+				|| !(photo.getAperture() >= MINIMUM_APERTURE)
+				|| !(photo.getAperture() <= MAXIMUM_APERTURE)
+				|| !(photo.getFocusDistance() > 0)) {
+			return false;
+		}
+
+		double scale = photo.isMetric() ? METER_SCALE : FOOT_SCALE;
+		long focalLength = FixedPoint.fromInt(photo.getFocalLength());
+		long aperture = FixedPoint.fromDouble(photo.getAperture());
+
+		// converted from double, so a distance too far to represent
+		// saturates and is rejected below instead of overflowing
+		long focusDistanceInMillimeters = (long) (photo.getFocusDistance()
+				* scale + 0.5);
+		long circleOfConfusion = (long) (camera.getCircleOfConfusion()
+				* (1L << CIRCLE_OF_CONFUSION_BITS) + 0.5);
+
+		if (circleOfConfusion <= 0
+				|| focusDistanceInMillimeters - focalLength < FixedPoint.ONE
+				|| focusDistanceInMillimeters <= aperture
+				|| focusDistanceInMillimeters > MAXIMUM_FOCUS_DISTANCE
+				|| !(camera.getFrameWidth() <= MAXIMUM_FRAME_SIZE)
+				|| !(camera.getFrameHeight() <= MAXIMUM_FRAME_SIZE)) {
+			return false;
+		}
+
+		long frameWidth = FixedPoint.fromDouble(camera.getFrameWidth());
+		long frameHeight = FixedPoint.fromDouble(camera.getFrameHeight());
+		long frameDiagonal = FixedPoint.sqrt(FixedPoint.multiply(frameWidth,
+				frameWidth)
+				+ FixedPoint.multiply(frameHeight, frameHeight));
+
+		// hyperfocal distance: f^2 / (N * c) + f
+		long hyperfocalDistance = (FixedPoint.divide(FixedPoint.multiply(
+				focalLength, focalLength), aperture) << CIRCLE_OF_CONFUSION_BITS)
+				/ circleOfConfusion + focalLength;
+
+		// depth of field before and behind the focus distance, calculated
+		// directly rather than as a difference of two large limits:
+		// s * (s - N) / (H + s - 2N) and s * (s - N) / (H - s)
+		long distanceLessAperture = focusDistanceInMillimeters - aperture;
+		long before = FixedPoint.multiplyDivide(focusDistanceInMillimeters,
+				distanceLessAperture, hyperfocalDistance
+						+ distanceLessAperture - aperture);
+		long behind = -FixedPoint.ONE;
+		long farDivisor = hyperfocalDistance - focusDistanceInMillimeters;
+
+		if (farDivisor > 0) {
+			behind = FixedPoint.multiplyDivide(focusDistanceInMillimeters,
+					distanceLessAperture, farDivisor);
+
+			if (behind > MAXIMUM_DEPTH_OF_FIELD) {
+				behind = -FixedPoint.ONE;
+			}
+		}
+
+		// field of view: frame * (s - f) / f, which is frame / magnification
+		long distanceBehindLens = focusDistanceInMillimeters - focalLength;
+		long magnification = (focalLength << MAGNIFICATION_BITS)
+				/ distanceBehindLens;
+
+		result.hyperfocalDistance = hyperfocalDistance / scale;
+		result.halfHyperfocalDistance = (hyperfocalDistance >> 1) / scale;
+		result.depthOfFieldNearLimit = (focusDistanceInMillimeters - before)
+				/ scale;
+		result.depthOfFieldBefore = before / scale;
+
+		if (behind < 0) {
+			result.depthOfFieldFarLimit = FixedPoint.toDouble(behind);
+			result.depthOfFieldBehind = FixedPoint.toDouble(behind);
+		} else {
+			result.depthOfFieldFarLimit = (focusDistanceInMillimeters + behind)
+					/ scale;
+			result.depthOfFieldBehind = behind / scale;
+		}
+		result.magnification = magnification
+				/ (scale * (1L << (MAGNIFICATION_BITS - FixedPoint.FRACTION_BITS)));
+		result.fieldOfViewHorizontal = calculateFieldOfView(frameWidth,
+				distanceBehindLens, focalLength) / scale;
+		result.fieldOfViewVertical = calculateFieldOfView(frameHeight,
+				distanceBehindLens, focalLength) / scale;
+		result.fieldOfViewDiagonal = calculateFieldOfView(frameDiagonal,
+				distanceBehindLens, focalLength) / scale;
+		result.angleOfViewHorizontal = calculateAngleOfView(frameWidth,
+				focalLength);
+		result.angleOfViewVertical = calculateAngleOfView(frameHeight,
+				focalLength);
+		result.angleOfViewDiagonal = calculateAngleOfView(frameDiagonal,
+				focalLength);
+
+		return true;
+	}
+
+	/**
+	 * @param frameSize
+	 *            long fixed point frame size in millimeters
+	 * @param distanceBehindLens
+	 *            long fixed point focus distance less the focal length
+	 * @param focalLength
+	 *            long fixed point focal length in millimeters
+	 * @return long fixed point field of view in millimeters
+	 */
+	private static long calculateFieldOfView(long frameSize,
+			long distanceBehindLens, long focalLength) {
+		return FixedPoint.divide(FixedPoint.multiply(frameSize,
+				distanceBehindLens), focalLength);
+	}
+
+	/**
+	 * @param frameSize
+	 *            long fixed point frame size in millimeters
+	 * @param focalLength
+	 *            long fixed point focal length in millimeters
+	 * @return double angle of view in degrees
+	 * 
+	 * @see http://www.tangentsoft.net/fcalc/help/AoV.htm
+	 */
+	private static double calculateAngleOfView(long frameSize, long focalLength) {
+		long radians = 2 * FixedPoint.atan2(frameSize >> 1, focalLength);
+
+		return FixedPoint.toDouble(FixedPoint.toDegrees(radians));
+	}
+
+	/**
+	 * Cannot instantiate, use static methods
+	 */
+	private FixedPointCalculator() {
+		super();
+	}
+}
\ No newline at end of file
@@ -8,6 +8,10 @@ import phototools.utility.MathUtility;
 /**
  * Store metadata concerning a photo including the focal length, aperture, and
  * focus distance. Calculate the depth of field and hyperfocal distance.
+ * 
+ * The hyperfocal distance, focus distance in millimeters, magnification, and
+ * angles of view are cached and only recalculated after a setter changes one
+ * of the values they depend on.
  */
 public class Photo {
 	private double aperture;
@@ -15,6 +19,21 @@ public class Photo {
 	private int focalLength;
 	private double focusDistance;
 	private boolean metric;
+	private boolean fixedPoint;
+
+	private boolean hyperfocalDistanceValid;
+	private double hyperfocalDistanceInMillimeters;
+
+	private boolean focusDistanceValid;
+	private double focusDistanceInMillimeters;
+
+	private boolean magnificationValid;
+	private double magnificationInMillimeters;
+
+	private boolean angleOfViewValid;
+	private double angleOfViewHorizontal;
+	private double angleOfViewVertical;
+	private double angleOfViewDiagonal;
 
 	/**
 	 * Empty constructor - set default values.
@@ -73,6 +92,57 @@ public class Photo {
 		setMetric(metric);
 	}
 
+	/**
+	 * Calculate every derived value in a single pass, computing the hyperfocal
+	 * distance, focus distance in millimeters, and magnification only once.
+	 * 
+	 * If {@link #isFixedPoint()}, the values are calculated by the
+	 * {@link FixedPointCalculator} unless the inputs are outside its range.
+	 * 
+	 * @param result
+	 *            DepthOfFieldResult to fill in, may be reused between calls
+	 * @return DepthOfFieldResult the given result
+	 */
+	public DepthOfFieldResult calculateAll(DepthOfFieldResult result) {
+		if (isFixedPoint() && FixedPointCalculator.calculateAll(this, result)) {
+			return result;
+		}
+
+		double hyperfocalDistance = calculateHyperfocalDistanceInMillimeters();
+		double focusDistance = getFocusDistanceInMillimeters();
+		double aperture = getAperture();
+		double frameWidth = getCamera().getFrameWidth();
+		double frameHeight = getCamera().getFrameHeight();
+
+		double dividend = focusDistance * (hyperfocalDistance - aperture);
+		double nearLimit = convert(dividend
+				/ (hyperfocalDistance + focusDistance - (2 * aperture)));
+		double farLimit = convert(dividend
+				/ (hyperfocalDistance - focusDistance));
+
+		double magnification = calculateMagnificationInMillimeters();
+		double fieldOfViewWidth = frameWidth / magnification;
+		double fieldOfViewHeight = frameHeight / magnification;
+
+		result.hyperfocalDistance = convert(hyperfocalDistance);
+		result.halfHyperfocalDistance = convert(hyperfocalDistance / 2);
+		result.depthOfFieldNearLimit = nearLimit;
+		result.depthOfFieldFarLimit = farLimit;
+		result.depthOfFieldBefore = getFocusDistance() - nearLimit;
+		result.depthOfFieldBehind = farLimit - getFocusDistance();
+		result.magnification = convert(magnification);
+		result.fieldOfViewHorizontal = convert(fieldOfViewWidth);
+		result.fieldOfViewVertical = convert(fieldOfViewHeight);
+		result.fieldOfViewDiagonal = convert(Math
+				.sqrt((fieldOfViewHeight * fieldOfViewHeight)
+						+ (fieldOfViewWidth * fieldOfViewWidth)));
+		result.angleOfViewHorizontal = calculateAngleOfViewHorizontal();
+		result.angleOfViewVertical = calculateAngleOfViewVertical();
+		result.angleOfViewDiagonal = calculateAngleOfViewDiagonal();
+
+		return result;
+	}
+
 	/**
 	 * Calculate the angle of view for the given frame size measurement and
 	 * {@link #getFocalLength()}.
@@ -98,7 +168,9 @@ public class Photo {
 	 * @see http://www.tangentsoft.net/fcalc/help/AoV.htm
 	 */
 	public double calculateAngleOfViewDiagonal() {
-		return calculateAngleOfView(getCamera().calculateFrameDiagonal());
+		calculateAnglesOfView();
+
+		return angleOfViewDiagonal;
 	}
 
 	/**
@@ -109,7 +181,9 @@ public class Photo {
 	 * @see http://www.tangentsoft.net/fcalc/help/AoV.htm
 	 */
 	public double calculateAngleOfViewHorizontal() {
-		return calculateAngleOfView(getCamera().getFrameWidth());
+		calculateAnglesOfView();
+
+		return angleOfViewHorizontal;
 	}
 
 	/**
@@ -120,7 +194,25 @@ public class Photo {
 	 * @see http://www.tangentsoft.net/fcalc/help/AoV.htm
 	 */
 	public double calculateAngleOfViewVertical() {
-		return calculateAngleOfView(getCamera().getFrameHeight());
+		calculateAnglesOfView();
+
+		return angleOfViewVertical;
+	}
+
+	/**
+	 * Calculate the horizontal, vertical, and diagonal angles of view unless
+	 * they are already cached.
+	 */
+	private void calculateAnglesOfView() {
+		if (!angleOfViewValid) {
+			angleOfViewHorizontal = calculateAngleOfView(getCamera()
+					.getFrameWidth());
+			angleOfViewVertical = calculateAngleOfView(getCamera()
+					.getFrameHeight());
+			angleOfViewDiagonal = calculateAngleOfView(getCamera()
+					.calculateFrameDiagonal());
+			angleOfViewValid = true;
+		}
 	}
 
 	/**
@@ -306,9 +398,14 @@ public class Photo {
 	 * @see http://www.dofmaster.com/equations.html
 	 */
 	private double calculateHyperfocalDistanceInMillimeters() {
-		return ((getFocalLength() * getFocalLength()) / (getAperture() * getCamera()
-				.getCircleOfConfusion()))
-				+ getFocalLength();
+		if (!hyperfocalDistanceValid) {
+			hyperfocalDistanceInMillimeters = ((getFocalLength() * getFocalLength()) / (getAperture() * getCamera()
+					.getCircleOfConfusion()))
+					+ getFocalLength();
+			hyperfocalDistanceValid = true;
+		}
+
+		return hyperfocalDistanceInMillimeters;
 	}
 
 	/**
@@ -336,9 +433,15 @@ public class Photo {
 	 * @see @see http://www.tangentsoft.net/fcalc/help/FoV.htm
 	 */
 	private double calculateMagnificationInMillimeters() {
-		double focusDistance = getFocusDistanceInMillimeters();
+		if (!magnificationValid) {
+			double focusDistance = getFocusDistanceInMillimeters();
 
-		return getFocalLength() / (focusDistance - getFocalLength());
+			magnificationInMillimeters = getFocalLength()
+					/ (focusDistance - getFocalLength());
+			magnificationValid = true;
+		}
+
+		return magnificationInMillimeters;
 	}
 
 	/**
@@ -399,15 +502,25 @@ public class Photo {
 	 * @return double focus distance in millimeters
 	 */
 	private double getFocusDistanceInMillimeters() {
-		double millimeters;
+		if (!focusDistanceValid) {
+			if (isMetric()) {
+				focusDistanceInMillimeters = getFocusDistance() * 1000;
+			} else {
+				focusDistanceInMillimeters = getFocusDistance() * 304.8;
+			}
 
-		if (isMetric()) {
-			millimeters = getFocusDistance() * 1000;
-		} else {
-			millimeters = getFocusDistance() * 304.8;
+			focusDistanceValid = true;
 		}
 
-		return millimeters;
+		return focusDistanceInMillimeters;
+	}
+
+	/**
+	 * @return true if {@link #calculateAll(DepthOfFieldResult)} uses fixed
+	 *         point arithmetic
+	 */
+	public boolean isFixedPoint() {
+		return fixedPoint;
 	}
 
 	/**
@@ -422,15 +535,36 @@ public class Photo {
 	 *            the aperture to set
 	 */
 	public void setAperture(double aperture) {
-		this.aperture = aperture;
+		if (Double.doubleToLongBits(this.aperture) != Double
+				.doubleToLongBits(aperture)) {
+			this.aperture = aperture;
+			hyperfocalDistanceValid = false;
+		}
 	}
 
 	/**
+	 * Set the camera. Cached values are recalculated when a different
+	 * {@link Camera} instance is set, so do not change a camera after setting
+	 * it.
+	 * 
 	 * @param camera
 	 *            the camera to set
 	 */
 	public void setCamera(Camera camera) {
-		this.camera = camera;
+		if (this.camera != camera) {
+			this.camera = camera;
+			hyperfocalDistanceValid = false;
+			angleOfViewValid = false;
+		}
+	}
+
+	/**
+	 * @param fixedPoint
+	 *            true to calculate with fixed point instead of double
+	 *            arithmetic
+	 */
+	public void setFixedPoint(boolean fixedPoint) {
+		this.fixedPoint = fixedPoint;
 	}
 
 	/**
@@ -438,7 +572,12 @@ public class Photo {
 	 *            the focalLength to set in millimeters
 	 */
 	public void setFocalLength(int focalLength) {
-		this.focalLength = focalLength;
+		if (this.focalLength != focalLength) {
+			this.focalLength = focalLength;
+			hyperfocalDistanceValid = false;
+			magnificationValid = false;
+			angleOfViewValid = false;
+		}
 	}
 
 	/**
@@ -446,15 +585,27 @@ public class Photo {
 	 *            the focusDistance to set
 	 */
 	public void setFocusDistance(double focusDistance) {
-		this.focusDistance = focusDistance;
+		if (Double.doubleToLongBits(this.focusDistance) != Double
+				.doubleToLongBits(focusDistance)) {
+			this.focusDistance = focusDistance;
+			focusDistanceValid = false;
+			magnificationValid = false;
+		}
 	}
 
 	/**
+	 * Set the measurement system. The focus distance is reinterpreted in the
+	 * new units, so only values derived from it are recalculated.
+	 * 
 	 * @param metric
 	 *            the metric to set
 	 */
 	public void setMetric(boolean metric) {
-		this.metric = metric;
+		if (this.metric != metric) {
+			this.metric = metric;
+			focusDistanceValid = false;
+			magnificationValid = false;
+		}
 	}
 
 	/*
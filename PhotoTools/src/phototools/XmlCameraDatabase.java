@@ -0,0 +1,267 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Vector;
+
+import org.kxml2.io.KXmlParser;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+/**
+ * Read cameras from an XML resource with the kxml2 pull parser, without
+ * building a document tree:
+ * 
+ * <pre>
+ * &lt;cameras&gt;
+ *   &lt;camera&gt;
+ *     &lt;name&gt;Full Frame&lt;/name&gt;
+ *     &lt;circleofconfusion&gt;0.03&lt;/circleofconfusion&gt;
+ *     &lt;frame&gt;
+ *       &lt;width&gt;36&lt;/width&gt;
+ *       &lt;height&gt;24&lt;/height&gt;
+ *     &lt;/frame&gt;
+ *   &lt;/camera&gt;
+ * &lt;/cameras&gt;
+ * </pre>
+ * 
+ * {@link #readModels(int, int)} reads only the model names, skipping
+ * everything else, so the list can be shown without parsing every camera.
+ * {@link #readCamera(int)} streams to a single camera and parses just that
+ * one.
+ */
+public class XmlCameraDatabase extends CameraDatabase {
+	private static final String CAMERAS = "cameras";
+	private static final String CAMERA = "camera";
+	private static final String NAME = "name";
+	private static final String CIRCLE_OF_CONFUSION = "circleofconfusion";
+	private static final String FRAME = "frame";
+	private static final String WIDTH = "width";
+	private static final String HEIGHT = "height";
+
+	/**
+	 * @param resource
+	 *            String name of the XML resource, such as "/cameras.xml"
+	 */
+	public XmlCameraDatabase(String resource) {
+		super(resource);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see phototools.CameraDatabase#readCount()
+	 */
+	public int readCount() throws IOException {
+		InputStream in = open();
+
+		try {
+			KXmlParser parser = createParser(in);
+			int count = 0;
+
+			while (parser.nextTag() == XmlPullParser.START_TAG) {
+				parser.require(XmlPullParser.START_TAG, null, CAMERA);
+				parser.skipSubTree();
+				count++;
+			}
+
+			return count;
+		} catch (XmlPullParserException e) {
+			throw new IOException(e.getMessage());
+		} finally {
+			in.close();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see phototools.CameraDatabase#readModels(int, int)
+	 */
+	public String[] readModels(int start, int count) throws IOException {
+		InputStream in = open();
+
+		try {
+			KXmlParser parser = createParser(in);
+			Vector models = new Vector();
+
+			for (int i = 0; models.size() < count
+					&& parser.nextTag() == XmlPullParser.START_TAG; i++) {
+				parser.require(XmlPullParser.START_TAG, null, CAMERA);
+
+				if (i < start) {
+					parser.skipSubTree();
+					continue;
+				}
+
+				String model = null;
+
+				while (parser.nextTag() == XmlPullParser.START_TAG) {
+					if (NAME.equals(parser.getName())) {
+						model = parser.nextText().trim();
+					} else {
+						parser.skipSubTree();
+					}
+				}
+
+				if (model == null) {
+					throw new XmlPullParserException("camera without a name",
+							parser, null);
+				}
+
+				models.addElement(model);
+			}
+
+			String[] result = new String[models.size()];
+			models.copyInto(result);
+
+			return result;
+		} catch (XmlPullParserException e) {
+			throw new IOException(e.getMessage());
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Read every camera in a single pass.
+	 * 
+	 * @see phototools.CameraDatabase#readCameras()
+	 */
+	public Camera[] readCameras() throws IOException {
+		InputStream in = open();
+
+		try {
+			KXmlParser parser = createParser(in);
+			Vector cameras = new Vector();
+
+			while (parser.nextTag() == XmlPullParser.START_TAG) {
+				parser.require(XmlPullParser.START_TAG, null, CAMERA);
+				cameras.addElement(readCamera(parser));
+			}
+
+			Camera[] result = new Camera[cameras.size()];
+			cameras.copyInto(result);
+
+			return result;
+		} catch (XmlPullParserException e) {
+			throw new IOException(e.getMessage());
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Read a single camera, skipping the cameras before it without parsing
+	 * their contents.
+	 * 
+	 * @see phototools.CameraDatabase#readCamera(int)
+	 */
+	public Camera readCamera(int index) throws IOException {
+		InputStream in = open();
+
+		try {
+			KXmlParser parser = createParser(in);
+
+			for (int i = 0; parser.nextTag() == XmlPullParser.START_TAG; i++) {
+				parser.require(XmlPullParser.START_TAG, null, CAMERA);
+
+				if (i == index) {
+					return readCamera(parser);
+				}
+
+				parser.skipSubTree();
+			}
+
+			throw new IOException("no camera " + index + " in "
+					+ getResource());
+		} catch (XmlPullParserException e) {
+			throw new IOException(e.getMessage());
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Parse the camera whose start tag the parser is on.
+	 * 
+	 * @param parser
+	 *            KXmlParser positioned on a camera start tag
+	 * @return Camera
+	 */
+	private Camera readCamera(KXmlParser parser) throws IOException,
+			XmlPullParserException {
+		String model = null;
+		double circleOfConfusion = 0;
+		double frameWidth = 0;
+		double frameHeight = 0;
+
+		while (parser.nextTag() == XmlPullParser.START_TAG) {
+			String name = parser.getName();
+
+			if (NAME.equals(name)) {
+				model = parser.nextText().trim();
+			} else if (CIRCLE_OF_CONFUSION.equals(name)) {
+				circleOfConfusion = readDouble(parser);
+			} else if (FRAME.equals(name)) {
+				while (parser.nextTag() == XmlPullParser.START_TAG) {
+					name = parser.getName();
+
+					if (WIDTH.equals(name)) {
+						frameWidth = readDouble(parser);
+					} else if (HEIGHT.equals(name)) {
+						frameHeight = readDouble(parser);
+					} else {
+						parser.skipSubTree();
+					}
+				}
+			} else {
+				parser.skipSubTree();
+			}
+		}
+
+		if (model == null || circleOfConfusion <= 0 || frameWidth <= 0
+				|| frameHeight <= 0) {
+			throw new XmlPullParserException("incomplete camera " + model,
+					parser, null);
+		}
+
+		return new Camera(model, circleOfConfusion, frameWidth, frameHeight);
+	}
+
+	/**
+	 * @param parser
+	 *            XmlPullParser positioned on a start tag
+	 * @return double value of the element's text
+	 */
+	private static double readDouble(XmlPullParser parser) throws IOException,
+			XmlPullParserException {
+		String text = parser.nextText().trim();
+
+		try {
+			return Double.parseDouble(text);
+		} catch (NumberFormatException e) {
+			throw new XmlPullParserException("not a number: " + text, parser,
+					e);
+		}
+	}
+
+	/**
+	 * @param in
+	 *            InputStream of the resource
+	 * @return KXmlParser positioned on the cameras start tag
+	 */
+	private static KXmlParser createParser(InputStream in)
+			throws XmlPullParserException, IOException {
+		KXmlParser parser = new KXmlParser();
+
+		parser.setInput(in, "UTF-8");
+		parser.nextTag();
+		parser.require(XmlPullParser.START_TAG, null, CAMERAS);
+
+		return parser;
+	}
+}
@@ -4,56 +4,242 @@
 package phototools.utility;
 
 /**
+ * Format doubles with a fixed number of digits after the decimal point. The
+ * digits are written straight into a caller's {@link StringBuffer} from a
+ * scaled long, so reusing one buffer formats without allocating; nothing goes
+ * through {@link String#valueOf(double)}, whose "1.0E10" form for large values
+ * cannot be cut at the decimal point.
+ * 
+ * Infinite values are written with the infinity sign, and NaN as "NaN".
+ * 
  * @author tstavenger
  * 
  */
 public class DoubleFormatter {
+	/** Most digits of precision, the largest power of ten in a long */
+	public static final int MAXIMUM_PRECISION = 18;
+
+	/**
+	 * Returned by {@link #scale(double, int)} for values it cannot scale.
+	 */
+	public static final long NOT_SCALABLE = Long.MIN_VALUE;
+
+	/**
+	 * Largest magnitude {@link #scale(double, int)} returns, 2^62, so larger
+	 * longs are free for callers to use as markers.
+	 */
+	public static final long MAXIMUM_SCALED = 1L << 62;
+
+	private static final String INFINITY = "\u221e";
+	private static final String NAN = "NaN";
+
+	private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L,
+			10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+			10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+			100000000000000L, 1000000000000000L, 10000000000000000L,
+			100000000000000000L, 1000000000000000000L };
 
 	/**
-	 * Format the double into a String with the given digits of precision.
+	 * Format the double into a String with the given digits of precision,
+	 * rounding half away from zero.
 	 * 
 	 * @param value
 	 *            double
+	 * @param precision
+	 *            int digits after the decimal point, 0 to
+	 *            {@link #MAXIMUM_PRECISION}
 	 * @return String
 	 */
 	public static String round(double value, int precision) {
-		double rounded = value + ((1D / MathUtility.pow(10D, precision)) / 2D);
-		String string = String.valueOf(rounded);
+		return append(new StringBuffer(), value, precision, true).toString();
+	}
+
+	/**
+	 * Format the double into a String with the given digits of precision, or
+	 * as infinity if it is negative, which is how an infinite depth of field
+	 * is reported.
+	 * 
+	 * @param value
+	 *            double
+	 * @param precision
+	 *            int digits after the decimal point, 0 to
+	 *            {@link #MAXIMUM_PRECISION}
+	 * @return String
+	 */
+	public static String roundDepthOfField(double value, int precision) {
+		return appendDepthOfField(new StringBuffer(), value, precision)
+				.toString();
+	}
 
-		String result;
+	/**
+	 * Format the double into a String with the given digits of precision,
+	 * dropping the digits beyond them.
+	 * 
+	 * @param value
+	 *            double
+	 * @param precision
+	 *            int digits after the decimal point, 0 to
+	 *            {@link #MAXIMUM_PRECISION}
+	 * @return String
+	 */
+	public static String truncate(double value, int precision) {
+		return append(new StringBuffer(), value, precision, false).toString();
+	}
 
-		if (precision == 0) {
-			result = string.substring(0, string.indexOf("."));
-		} else {
-			result = string.substring(0, string.indexOf(".") + (precision + 1));
+	/**
+	 * Scale the double to a long with the given digits of precision, rounding
+	 * half away from zero as {@link #appendRounded(StringBuffer, double, int)}
+	 * does. Two values with the same scaled long are formatted the same, so
+	 * it can tell whether the text would change without formatting it.
+	 * 
+	 * @param value
+	 *            double
+	 * @param precision
+	 *            int digits after the decimal point, 0 to
+	 *            {@link #MAXIMUM_PRECISION}
+	 * @return long value times 10^precision, or {@link #NOT_SCALABLE} if the
+	 *         value is not finite or the result would be larger than
+	 *         {@link #MAXIMUM_SCALED}
+	 */
+	public static long scale(double value, int precision) {
+		if (precision < 0 || precision > MAXIMUM_PRECISION) {
+			throw new IllegalArgumentException("precision " + precision);
 		}
 
-		return result;
+		boolean negative = value < 0;
+		double scaled = (negative ? -value : value) * POWERS_OF_TEN[precision]
+				+ 0.5;
+
+		// also false for NaN
+		if (!(scaled < MAXIMUM_SCALED)) {
+			return NOT_SCALABLE;
+		}
+
+		return negative ? -(long) scaled : (long) scaled;
 	}
 
-	public static String roundDepthOfField(double value, int precision) {
-		String result;
+	/**
+	 * Append the double with the given digits of precision, rounding half
+	 * away from zero.
+	 * 
+	 * @param buffer
+	 *            StringBuffer to append to
+	 * @param value
+	 *            double
+	 * @param precision
+	 *            int digits after the decimal point, 0 to
+	 *            {@link #MAXIMUM_PRECISION}
+	 * @return StringBuffer buffer
+	 */
+	public static StringBuffer appendRounded(StringBuffer buffer,
+			double value, int precision) {
+		return append(buffer, value, precision, true);
+	}
 
+	/**
+	 * Append the double with the given digits of precision, or infinity if it
+	 * is negative.
+	 * 
+	 * @param buffer
+	 *            StringBuffer to append to
+	 * @param value
+	 *            double
+	 * @param precision
+	 *            int digits after the decimal point, 0 to
+	 *            {@link #MAXIMUM_PRECISION}
+	 * @return StringBuffer buffer
+	 * 
+	 * @see #roundDepthOfField(double, int)
+	 */
+	public static StringBuffer appendDepthOfField(StringBuffer buffer,
+			double value, int precision) {
 		if (value >= 0) {
-			result = round(value, precision);
-		} else {
-			result = "\u221e";
+			return append(buffer, value, precision, true);
 		}
 
-		return result;
+		return buffer.append(INFINITY);
 	}
 
-	public static String truncate(double value, int precision) {
-		String string = String.valueOf(value);
-		String result;
+	private static StringBuffer append(StringBuffer buffer, double value,
+			int precision, boolean round) {
+		if (precision < 0 || precision > MAXIMUM_PRECISION) {
+			throw new IllegalArgumentException("precision " + precision);
+		}
+
+		if (value != value) {
+			return buffer.append(NAN);
+		}
+
+		boolean negative = value < 0;
+		double magnitude = negative ? -value : value;
+
+		long scale = POWERS_OF_TEN[precision];
+		double scaled = magnitude * scale + (round ? 0.5 : 0);
+		long integer;
+		long fraction;
+		int zeros = 0;
 
-		if (precision <= 0) {
-			result = string.substring(0, string.indexOf("."));
+		if (scaled < Long.MAX_VALUE) {
+			long units = (long) scaled;
+
+			if (units == 0) {
+				// no sign on zero
+				negative = false;
+			}
+
+			integer = units / scale;
+			fraction = units % scale;
+		} else if (magnitude < Double.POSITIVE_INFINITY) {
+			// too large for the fraction to show, keep the leading digits
+			// and write the rest as zeros
+			while (magnitude >= POWERS_OF_TEN[MAXIMUM_PRECISION]) {
+				magnitude /= 10;
+				zeros++;
+			}
+
+			integer = (long) magnitude;
+			fraction = 0;
 		} else {
-			result = string.substring(0, string.indexOf(".") + (precision + 1));
+			if (negative) {
+				buffer.append('-');
+			}
+
+			return buffer.append(INFINITY);
+		}
+
+		if (negative) {
+			buffer.append('-');
 		}
 
-		return result;
+		appendDigits(buffer, integer, 1);
+
+		for (int i = 0; i < zeros; i++) {
+			buffer.append('0');
+		}
+
+		if (precision > 0) {
+			buffer.append('.');
+			appendDigits(buffer, fraction, precision);
+		}
+
+		return buffer;
+	}
+
+	/**
+	 * Append the decimal digits of a non-negative long, padded with leading
+	 * zeros to at least the given number of digits.
+	 */
+	private static void appendDigits(StringBuffer buffer, long value,
+			int minimumDigits) {
+		int digits = minimumDigits;
+
+		while (digits <= MAXIMUM_PRECISION && value >= POWERS_OF_TEN[digits]) {
+			digits++;
+		}
+
+		for (int i = digits - 1; i >= 0; i--) {
+			buffer.append((char) ('0' + (value / POWERS_OF_TEN[i]) % 10));
+		}
 	}
 
 	/**
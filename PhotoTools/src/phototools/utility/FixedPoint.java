@@ -0,0 +1,269 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.utility;
+
+/**
+ * Fixed point arithmetic for handsets without a floating point unit. Values
+ * are Q47.16 numbers held in a long: the low {@link #FRACTION_BITS} bits are
+ * the fraction and the other 47 bits the signed integer part, a range
+ * FixedPointCalculator relies on for distances in millimeters. Only integer
+ * operations are used, except for {@link #fromDouble(double)} and
+ * {@link #toDouble(long)} at the boundaries.
+ */
+public class FixedPoint {
+	public static final int FRACTION_BITS = 16;
+
+	/** 1.0 */
+	public static final long ONE = 1L << FRACTION_BITS;
+
+	/** pi / 2 */
+	public static final long HALF_PI = 102944;
+
+	/** 180 / pi */
+	public static final long DEGREES_PER_RADIAN = 3754936;
+
+	/**
+	 * Bits of fraction used internally by {@link #atan2(long, long)}.
+	 */
+	private static final int ANGLE_BITS = 30;
+
+	/**
+	 * atan(2^-i) with {@link #ANGLE_BITS} fraction bits, for the CORDIC
+	 * rotations in {@link #atan2(long, long)}.
+	 */
+	private static final long[] ATAN_TABLE = { 843314857, 497837829,
+			263043837, 133525159, 67021687, 33543516, 16775851, 8388437,
+			4194283, 2097149, 1048576, 524288, 262144, 131072, 65536, 32768,
+			16384, 8192, 4096, 2048, 1024, 512, 256, 128, 64, 32, 16, 8, 4, 2,
+			1 };
+
+	/** pi / 2 with {@link #ANGLE_BITS} fraction bits */
+	private static final long HALF_PI_ANGLE = 1686629713;
+
+	/**
+	 * Largest magnitude, in bits, of the CORDIC vector. The CORDIC gain of
+	 * about 1.65 must still fit in a long.
+	 */
+	private static final int CORDIC_BITS = 60;
+
+	/**
+	 * @param value
+	 *            double
+	 * @return long the nearest fixed point value
+	 */
+	public static long fromDouble(double value) {
+		return (long) (value * ONE + (value < 0 ? -0.5 : 0.5));
+	}
+
+	/**
+	 * @param value
+	 *            int
+	 * @return long fixed point value
+	 */
+	public static long fromInt(int value) {
+		return ((long) value) << FRACTION_BITS;
+	}
+
+	/**
+	 * @param value
+	 *            long fixed point value
+	 * @return double
+	 */
+	public static double toDouble(long value) {
+		return (double) value / ONE;
+	}
+
+	/**
+	 * @param a
+	 *            long fixed point value
+	 * @param b
+	 *            long fixed point value
+	 * @return long a * b, the real product must stay below 2^31
+	 */
+	public static long multiply(long a, long b) {
+		return (a * b) >> FRACTION_BITS;
+	}
+
+	/**
+	 * @param a
+	 *            long fixed point value, the real value must stay below 2^47
+	 * @param b
+	 *            long fixed point value, not zero
+	 * @return long a / b
+	 */
+	public static long divide(long a, long b) {
+		return (a << FRACTION_BITS) / b;
+	}
+
+	/**
+	 * Calculate a * b / c without the product overflowing, by shifting the
+	 * larger operand right just enough for the product to fit. Only the low bits of
+	 * values far larger than the result are lost.
+	 * 
+	 * @param a
+	 *            long non-negative fixed point value
+	 * @param b
+	 *            long non-negative fixed point value
+	 * @param c
+	 *            long positive fixed point value
+	 * @return long a * b / c, or Long.MAX_VALUE if it is too large
+	 */
+	public static long multiplyDivide(long a, long b, long c) {
+		int shift = bitLength(a) + bitLength(b) - 62;
+
+		if (shift > 0) {
+			if (a > b) {
+				a >>= shift;
+			} else {
+				b >>= shift;
+			}
+		} else {
+			shift = 0;
+		}
+
+		long quotient = (a * b) / c;
+
+		if (quotient > (Long.MAX_VALUE >> shift)) {
+			return Long.MAX_VALUE;
+		}
+
+		return quotient << shift;
+	}
+
+	/**
+	 * @param value
+	 *            long non-negative value
+	 * @return int number of bits needed to hold value
+	 */
+	private static int bitLength(long value) {
+		int bits = 0;
+
+		for (int half = 32; half > 0; half >>= 1) {
+			if ((value >>> half) != 0) {
+				value >>>= half;
+				bits += half;
+			}
+		}
+
+		return bits + (int) value;
+	}
+
+	/**
+	 * Square root by bitwise integer square root.
+	 * 
+	 * @param value
+	 *            long non-negative fixed point value below 2^31
+	 * @return long square root of value
+	 */
+	public static long sqrt(long value) {
+		if (value <= 0) {
+			return 0;
+		}
+
+		long remainder = value << FRACTION_BITS;
+		long root = 0;
+		long bit = 1L << 62;
+
+		while (bit > remainder) {
+			bit >>= 2;
+		}
+
+		while (bit != 0) {
+			if (remainder >= root + bit) {
+				remainder -= root + bit;
+				root = (root >> 1) + bit;
+			} else {
+				root >>= 1;
+			}
+
+			bit >>= 2;
+		}
+
+		return root;
+	}
+
+	/**
+	 * Angle of the vector (x, y) by CORDIC vectoring, which only needs shifts
+	 * and additions. The result is accurate to about one unit in the last
+	 * place.
+	 * 
+	 * @param y
+	 *            long fixed point value
+	 * @param x
+	 *            long fixed point value
+	 * @return long angle in radians between -pi and pi
+	 */
+	public static long atan2(long y, long x) {
+		if (x == 0 && y == 0) {
+			return 0;
+		}
+
+		// rotate into the right half plane
+		long offset = 0;
+
+		if (x < 0) {
+			long temp = x;
+
+			if (y >= 0) {
+				x = y;
+				y = -temp;
+				offset = HALF_PI_ANGLE;
+			} else {
+				x = -y;
+				y = temp;
+				offset = -HALF_PI_ANGLE;
+			}
+		}
+
+		// scale up so the shifts below keep enough precision
+		long magnitude = x | (y < 0 ? -y : y);
+		int shift = 0;
+
+		while ((magnitude << shift) >>> (CORDIC_BITS - 1) == 0) {
+			shift++;
+		}
+
+		x <<= shift;
+		y <<= shift;
+
+		long angle = 0;
+
+		for (int i = 0; i < ATAN_TABLE.length; i++) {
+			long nextX;
+
+			if (y > 0) {
+				nextX = x + (y >> i);
+				y -= x >> i;
+				angle += ATAN_TABLE[i];
+			} else {
+				nextX = x - (y >> i);
+				y += x >> i;
+				angle -= ATAN_TABLE[i];
+			}
+
+			x = nextX;
+		}
+
+		angle += offset;
+
+		// round to FRACTION_BITS
+		return (angle + (1L << (ANGLE_BITS - FRACTION_BITS - 1))) >> (ANGLE_BITS - FRACTION_BITS);
+	}
+
+	/**
+	 * @param radians
+	 *            long fixed point angle
+	 * @return long fixed point angle in degrees
+	 */
+	public static long toDegrees(long radians) {
+		return multiply(radians, DEGREES_PER_RADIAN);
+	}
+
+	/**
+	 * Cannot instantiate, use static methods
+	 */
+	private FixedPoint() {
+		super();
+	}
+}
\ No newline at end of file
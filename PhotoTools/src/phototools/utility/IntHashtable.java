@@ -0,0 +1,147 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.utility;
+
+/**
+ * Hash table from int keys to int values using open addressing, so no
+ * objects are allocated per entry. A key may be added more than once; all of
+ * its values are found by walking the probe sequence:
+ * 
+ * <pre>
+ * for (int slot = table.first(key); slot != -1; slot = table.next(key, slot)) {
+ * 	int value = table.valueAt(slot);
+ * }
+ * </pre>
+ */
+public class IntHashtable {
+	private static final int NONE = -1;
+
+	private int[] keys;
+	private int[] values;
+	private boolean[] used;
+	private int size;
+
+	/**
+	 * @param capacity
+	 *            int number of entries expected, the table grows beyond it
+	 */
+	public IntHashtable(int capacity) {
+		allocate(tableSize(capacity));
+	}
+
+	/**
+	 * Add an entry, keeping any entries already added with the same key.
+	 * 
+	 * @param key
+	 *            int key
+	 * @param value
+	 *            int value
+	 */
+	public void put(int key, int value) {
+		if ((size + 1) * 4 > keys.length * 3) {
+			rehash();
+		}
+
+		int slot = home(key);
+
+		while (used[slot]) {
+			slot = (slot + 1) & (keys.length - 1);
+		}
+
+		keys[slot] = key;
+		values[slot] = value;
+		used[slot] = true;
+		size++;
+	}
+
+	/**
+	 * @param key
+	 *            int key
+	 * @return int first slot holding key, or -1 if there is none
+	 */
+	public int first(int key) {
+		return find(key, home(key));
+	}
+
+	/**
+	 * @param key
+	 *            int key
+	 * @param slot
+	 *            int slot returned by {@link #first(int)} or this method
+	 * @return int next slot holding key, or -1 if there is none
+	 */
+	public int next(int key, int slot) {
+		return find(key, (slot + 1) & (keys.length - 1));
+	}
+
+	/**
+	 * @param slot
+	 *            int slot returned by {@link #first(int)} or
+	 *            {@link #next(int, int)}
+	 * @return int value in slot
+	 */
+	public int valueAt(int slot) {
+		return values[slot];
+	}
+
+	/**
+	 * @return int number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	private int find(int key, int slot) {
+		while (used[slot]) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+
+			slot = (slot + 1) & (keys.length - 1);
+		}
+
+		return NONE;
+	}
+
+	private int home(int key) {
+		// spread the bits so keys differing only in high bits are apart
+		int hash = key ^ (key >>> 16);
+
+		return (hash * 0x9E3779B9 >>> 8) & (keys.length - 1);
+	}
+
+	private void rehash() {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+
+		allocate(oldKeys.length * 2);
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	private void allocate(int length) {
+		keys = new int[length];
+		values = new int[length];
+		used = new boolean[length];
+		size = 0;
+	}
+
+	/**
+	 * @return int power of two holding capacity entries at most 3/4 full
+	 */
+	private static int tableSize(int capacity) {
+		int length = 8;
+
+		while (length * 3 < capacity * 4) {
+			length <<= 1;
+		}
+
+		return length;
+	}
+}
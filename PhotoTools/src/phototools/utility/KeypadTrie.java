@@ -0,0 +1,193 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.utility;
+
+/**
+ * Find words by the keypad digits that spell them, as on a phone: "226" finds
+ * "Canon". Letters map to the digit printed with them on the keypad, digits
+ * to themselves, a space to 0, and anything else to 1.
+ * 
+ * The digit sequences are held in a trie stored as parallel arrays, each
+ * node knowing its first child and its next sibling, so a lookup takes time
+ * proportional to the number of digits typed (at most ten siblings are
+ * compared per digit) no matter how many words there are. Every node
+ * remembers the first word, by index, whose digits start with the path to
+ * that node.
+ * 
+ * Words can be added one at a time, so they need not all be in memory at
+ * once; call {@link #compact()} after the last one.
+ */
+public class KeypadTrie {
+	private static final int NONE = -1;
+
+	/** Nodes to allocate room for at first */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** Keypad digit for each letter a through z */
+	private static final String LETTER_KEYS = "22233344455566677778889999";
+
+	private char[] keys;
+	private int[] firstChildren;
+	private int[] nextSiblings;
+	private int[] firstWords;
+	private int size;
+
+	/**
+	 * Create an empty trie, to {@link #add(String, int)} words to.
+	 */
+	public KeypadTrie() {
+		keys = new char[INITIAL_CAPACITY];
+		firstChildren = new int[INITIAL_CAPACITY];
+		nextSiblings = new int[INITIAL_CAPACITY];
+		firstWords = new int[INITIAL_CAPACITY];
+
+		// root
+		addNode((char) 0, NONE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param words
+	 *            array of String words, found by their index in this array
+	 */
+	public KeypadTrie(String[] words) {
+		this();
+
+		for (int i = 0; i < words.length; i++) {
+			add(words[i], i);
+		}
+
+		compact();
+	}
+
+	/**
+	 * Convert a character into the keypad digit it is typed with.
+	 * 
+	 * @param c
+	 *            char
+	 * @return char '0' to '9'
+	 */
+	public static char toKey(char c) {
+		if (c >= '0' && c <= '9') {
+			return c;
+		} else if (c >= 'a' && c <= 'z') {
+			return LETTER_KEYS.charAt(c - 'a');
+		} else if (c >= 'A' && c <= 'Z') {
+			return LETTER_KEYS.charAt(c - 'A');
+		} else if (c == ' ') {
+			return '0';
+		}
+
+		return '1';
+	}
+
+	/**
+	 * Find the first word spelled by the given keypad digits.
+	 * 
+	 * @param digits
+	 *            String of keypad digits '0' to '9'
+	 * @return int index of the first word starting with digits, or -1 if
+	 *         there is none
+	 */
+	public int find(String digits) {
+		int node = 0;
+
+		for (int i = 0; i < digits.length() && node != NONE; i++) {
+			node = findChild(node, digits.charAt(i));
+		}
+
+		if (node == NONE || firstWords[node] == Integer.MAX_VALUE) {
+			return NONE;
+		}
+
+		return firstWords[node];
+	}
+
+	/**
+	 * @return int number of nodes, including the root
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Add a word.
+	 * 
+	 * @param word
+	 *            String word
+	 * @param index
+	 *            int index to find the word by
+	 */
+	public void add(String word, int index) {
+		int node = 0;
+		firstWords[node] = Math.min(firstWords[node], index);
+
+		for (int i = 0; i < word.length(); i++) {
+			char key = toKey(word.charAt(i));
+			int child = findChild(node, key);
+
+			if (child == NONE) {
+				child = addNode(key, node, index);
+			} else {
+				firstWords[child] = Math.min(firstWords[child], index);
+			}
+
+			node = child;
+		}
+	}
+
+	/**
+	 * Release the room allocated for nodes beyond those in use.
+	 */
+	public void compact() {
+		resize(size);
+	}
+
+	private int addNode(char key, int parent, int index) {
+		if (size == keys.length) {
+			resize(size * 2);
+		}
+
+		int node = size++;
+
+		keys[node] = key;
+		firstChildren[node] = NONE;
+		firstWords[node] = index;
+
+		if (parent == NONE) {
+			nextSiblings[node] = NONE;
+		} else {
+			nextSiblings[node] = firstChildren[parent];
+			firstChildren[parent] = node;
+		}
+
+		return node;
+	}
+
+	private void resize(int capacity) {
+		char[] resizedKeys = new char[capacity];
+		int[] resizedFirstChildren = new int[capacity];
+		int[] resizedNextSiblings = new int[capacity];
+		int[] resizedFirstWords = new int[capacity];
+
+		System.arraycopy(keys, 0, resizedKeys, 0, size);
+		System.arraycopy(firstChildren, 0, resizedFirstChildren, 0, size);
+		System.arraycopy(nextSiblings, 0, resizedNextSiblings, 0, size);
+		System.arraycopy(firstWords, 0, resizedFirstWords, 0, size);
+
+		keys = resizedKeys;
+		firstChildren = resizedFirstChildren;
+		nextSiblings = resizedNextSiblings;
+		firstWords = resizedFirstWords;
+	}
+
+	private int findChild(int node, char key) {
+		int child = firstChildren[node];
+
+		while (child != NONE && keys[child] != key) {
+			child = nextSiblings[child];
+		}
+
+		return child;
+	}
+}
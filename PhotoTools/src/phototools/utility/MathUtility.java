@@ -27,168 +27,326 @@ public class MathUtility {
 	/** ln(0.5) constant */
 	final static public double LOGdiv2 = -0.6931471805599453094;
 
-	//
+	/** Intervals of the atan table over [0, 1] */
+	final static private int ATAN_INTERVALS = 64;
+
+	/** atan(i / ATAN_INTERVALS) for i = 0 to ATAN_INTERVALS */
+	final static private double[] ATAN_TABLE = {
+			0.0, 0.015623728620476831, 0.031239833430268277,
+			0.046840712915969654, 0.06241880999595735, 0.0779666338315423,
+			0.09347678115858947, 0.10894195698986579, 0.12435499454676144,
+			0.13970887428916365, 0.15499674192394097, 0.1702119252854744,
+			0.18534794999569476, 0.2003985538258785, 0.21535769969773805,
+			0.23021958727684372, 0.24497866312686414, 0.2596296294082575,
+			0.2741674511196588, 0.2885873618940774, 0.3028848683749714,
+			0.31705575320914703, 0.3310960767041321, 0.34500217720710513,
+			0.35877067027057225, 0.3723984466767542, 0.38588266939807375,
+			0.39922076957525254, 0.4124104415973873, 0.42544963737004227,
+			0.43833655985795783, 0.4510696559885235, 0.4636476090008061,
+			0.4760693303227612, 0.48833395105640554, 0.5004408131472942,
+			0.5123894603107377, 0.5241796287829132, 0.5358112379604637,
+			0.5472843809874369, 0.5585993153435624, 0.5697564534829784,
+			0.5807563535676704, 0.5915997103351114, 0.6022873461349642,
+			0.6128202021652414, 0.6231993299340659, 0.6334258829691446,
+			0.6435011087932844, 0.6534263411807619, 0.6632029927060933,
+			0.6728325475937632, 0.6823165548747481, 0.6916566218531999,
+			0.7008544078844502, 0.7099116184635249, 0.7188299996216245,
+			0.7276113326265107, 0.7362574289814281, 0.7447701257160751,
+			0.7531512809621944, 0.7614027698055784, 0.7695264804056583,
+			0.7775243103733478, 0.7853981633974483 };
+
+	/**
+	 * Cubic Hermite interpolation in each interval i, so that atan(x) =
+	 * y + t * (c1 + t * (c2 + t * c3)) with t the position of x within the
+	 * interval, stored together as y, c1, c2, c3 from index 4 * i. The
+	 * coefficients follow from the table values and the exact derivative
+	 * 1 / (1 + x^2) at both ends of the interval. A last, constant interval
+	 * holds atan(1) so that x = 1 needs no special case.
+	 */
+	final static private double[] ATAN_COEFFICIENTS =
+			new double[4 * (ATAN_INTERVALS + 1)];
+
+	static {
+		double h = 1. / ATAN_INTERVALS;
+		for (int i = 0; i < ATAN_INTERVALS; i++) {
+			double x0 = i * h;
+			double x1 = x0 + h;
+			double d0 = h / (1. + x0 * x0);
+			double d1 = h / (1. + x1 * x1);
+			double dy = ATAN_TABLE[i + 1] - ATAN_TABLE[i];
+			ATAN_COEFFICIENTS[4 * i] = ATAN_TABLE[i];
+			ATAN_COEFFICIENTS[4 * i + 1] = d0;
+			ATAN_COEFFICIENTS[4 * i + 2] = 3. * dy - 2. * d0 - d1;
+			ATAN_COEFFICIENTS[4 * i + 3] = d0 + d1 - 2. * dy;
+		}
+		ATAN_COEFFICIENTS[4 * ATAN_INTERVALS] = ATAN_TABLE[ATAN_INTERVALS];
+	}
+
+	/**
+	 * Arc cosine, as atan2(sqrt(1 - x^2), x) so it stays accurate near 1.
+	 * 
+	 * @param x
+	 *            double
+	 * @return double acos(x) between 0 and pi, NaN if |x| > 1
+	 */
 	static public double acos(double x) {
-		double f = asin(x);
-		if (f == Double.NaN)
-			return f;
-		return Math.PI / 2 - f;
+		if (!(x >= -1. && x <= 1.))
+			return Double.NaN;
+		return atan2(Math.sqrt((1. - x) * (1. + x)), x);
 	}
 
+	/**
+	 * Arc sine, as atan2(x, sqrt(1 - x^2)).
+	 * 
+	 * @param x
+	 *            double
+	 * @return double asin(x) between -pi/2 and pi/2, NaN if |x| > 1
+	 */
 	static public double asin(double x) {
-		if (x < -1. || x > 1.)
+		if (!(x >= -1. && x <= 1.))
 			return Double.NaN;
-		if (x == -1.)
-			return -Math.PI / 2;
-		if (x == 1)
-			return Math.PI / 2;
-		return atan(x / Math.sqrt(1 - x * x));
+		return atan2(x, Math.sqrt((1. - x) * (1. + x)));
 	}
 
+	/**
+	 * Arc tangent. The argument is folded into [0, 1] by atan(-x) = -atan(x)
+	 * and atan(x) = pi/2 - atan(1/x), then interpolated between the 65 table
+	 * values by a cubic Hermite polynomial. The interpolation error is at
+	 * most h^4 / 384 times the largest fourth derivative of atan on [0, 1],
+	 * 4.67. With h = 1/64 the error is below 7.3e-10 radians, or 4.2e-8
+	 * degrees.
+	 * 
+	 * @param x
+	 *            double
+	 * @return double atan(x) between -pi/2 and pi/2
+	 */
 	static public double atan(double x) {
-		boolean signChange = false;
-		boolean Invert = false;
-		int sp = 0;
-		double x2, a;
-		// check up the sign change
-		if (x < 0.) {
+		boolean signChange = x < 0.;
+		if (signChange)
 			x = -x;
-			signChange = true;
-		}
-		// check up the invertation
-		if (x > 1.) {
-			x = 1 / x;
-			Invert = true;
-		}
-		// process shrinking the domain until x<PI/12
-		while (x > Math.PI / 12) {
-			sp++;
-			a = x + SQRT3;
-			a = 1 / a;
-			x = x * SQRT3;
-			x = x - 1;
-			x = x * a;
-		}
-		// calculation core
-		x2 = x * x;
-		a = x2 + 1.4087812;
-		a = 0.55913709 / a;
-		a = a + 0.60310579;
-		a = a - (x2 * 0.05160454);
-		a = a * x;
-		// process until sp=0
-		while (sp > 0) {
-			a = a + Math.PI / 6;
-			sp--;
-		}
+		boolean invert = x > 1.;
+		if (invert)
+			x = 1. / x;
+		// interpolate within interval i
+		x *= ATAN_INTERVALS;
+		int i = (int) x;
+		x -= i;
+		i <<= 2;
+		double a = ATAN_COEFFICIENTS[i]
+				+ x
+				* (ATAN_COEFFICIENTS[i + 1] + x
+						* (ATAN_COEFFICIENTS[i + 2] + x
+								* ATAN_COEFFICIENTS[i + 3]));
 		// invertation took place
-		if (Invert)
+		if (invert)
 			a = Math.PI / 2 - a;
 		// sign change took place
 		if (signChange)
 			a = -a;
-		//
 		return a;
 	}
 
+	/**
+	 * Angle of the vector (x, y), from {@link #atan(double)} of the smaller
+	 * over the larger coordinate, with the same error.
+	 * 
+	 * @param y
+	 *            double
+	 * @param x
+	 *            double
+	 * @return double angle in radians between -pi and pi, 0 if x = y = 0
+	 */
 	static public double atan2(double y, double x) {
+		if (x != x || y != y)
+			return Double.NaN;
+		double ax = x < 0. ? -x : x;
+		double ay = y < 0. ? -y : y;
 		// if x=y=0
-		if (y == 0. && x == 0.)
+		if (ay == 0. && ax == 0.)
 			return 0.;
-		// if x>0 atan(y/x)
-		if (x > 0.)
-			return atan(y / x);
-		// if x<0 sign(y)*(pi - atan(|y/x|))
-		if (x < 0.) {
-			if (y < 0.)
-				return -(Math.PI - atan(y / x));
-			else
-				return Math.PI - atan(-y / x);
-		}
-		// if x=0 y!=0 sign(y)*pi/2
-		if (y < 0.)
-			return -Math.PI / 2.;
+		// angle of (|x|, |y|), in the first quadrant
+		double a;
+		if (ay <= ax)
+			a = atan(ay / ax);
 		else
-			return Math.PI / 2.;
+			a = Math.PI / 2 - atan(ax / ay);
+		// reflect into the quadrant of (x, y)
+		if (x < 0.)
+			a = Math.PI - a;
+		if (y < 0.)
+			a = -a;
+		return a;
 	}
 
+	/** ln(2) split so that k * LN2_HI is exact for |k| < 2^11 */
+	final static private double LN2_HI = 6.93147180369123816490e-01;
+	final static private double LN2_LO = 1.90821492927058770002e-10;
+	final static private double INV_LN2 = 1.44269504088896338700e+00;
+	/** Largest argument of exp which does not overflow */
+	final static private double EXP_OVERFLOW = 7.09782712893383973096e+02;
+	/** Smallest argument of exp which does not underflow to zero */
+	final static private double EXP_UNDERFLOW = -7.45133219101941108420e+02;
+	final static private double TWO_54 = 1.80143985094819840000e+16;
+	final static private double TWO_1023 = 8.98846567431157953865e+307;
+	final static private double TWO_M1000 = 9.33263618503218878990e-302;
+
+	/** Minimax coefficients of exp(r) on [-ln2/2, ln2/2] */
+	final static private double P1 = 1.66666666666666019037e-01;
+	final static private double P2 = -2.77777777770155933842e-03;
+	final static private double P3 = 6.61375632143793436117e-05;
+	final static private double P4 = -1.65339022054652515390e-06;
+	final static private double P5 = 4.13813679705723846039e-08;
+
+	/** Minimax coefficients of log(1+f) on [sqrt(2)/2 - 1, sqrt(2) - 1] */
+	final static private double LG1 = 6.666666666666735130e-01;
+	final static private double LG2 = 3.999999999940941908e-01;
+	final static private double LG3 = 2.857142874366239149e-01;
+	final static private double LG4 = 2.222219843214978396e-01;
+	final static private double LG5 = 1.818357216161805012e-01;
+	final static private double LG6 = 1.531383769920937332e-01;
+	final static private double LG7 = 1.479819860511658591e-01;
+
+	/**
+	 * e raised to the power x, after fdlibm's e_exp.c. The argument is reduced
+	 * to x = k * ln(2) + r with |r| <= ln(2) / 2, exp(r) comes from a degree 5
+	 * minimax polynomial, and 2^k is applied to the exponent bits directly.
+	 * 
+	 * The error is less than 1 ulp.
+	 * 
+	 * @param x
+	 *            double
+	 * @return double e^x, 0 below about -745 and infinity above about 709.78
+	 */
 	static public double exp(double x) {
-		if (x == 0.)
-			return 1.;
-		//
-		double f = 1;
-		long d = 1;
-		double k;
-		boolean isless = (x < 0.);
-		if (isless)
-			x = -x;
-		k = x / d;
+		if (x != x)
+			return x;
+		if (x > EXP_OVERFLOW)
+			return Double.POSITIVE_INFINITY;
+		if (x < EXP_UNDERFLOW)
+			return 0.;
 		//
-		for (long i = 2; i < 50; i++) {
-			f = f + k;
-			k = k * x / i;
+		double hi = 0., lo = 0.;
+		int k = 0;
+		double ax = x < 0. ? -x : x;
+		// reduce the argument
+		if (ax > 0.5 * LN2_HI) {
+			if (ax < 1.5 * LN2_HI) {
+				k = x < 0. ? -1 : 1;
+				hi = x - k * LN2_HI;
+				lo = k * LN2_LO;
+			} else {
+				k = (int) (INV_LN2 * x + (x < 0. ? -0.5 : 0.5));
+				hi = x - k * LN2_HI;
+				lo = k * LN2_LO;
+			}
+			x = hi - lo;
+		} else if (ax < 3.725290298461914e-09) {
+			// |x| < 2^-28
+			return 1. + x;
 		}
-		//
-		if (isless)
-			return 1 / f;
-		else
-			return f;
+		// polynomial on the reduced argument
+		double t = x * x;
+		double c = x - t * (P1 + t * (P2 + t * (P3 + t * (P4 + t * P5))));
+		if (k == 0)
+			return 1. - ((x * c) / (c - 2.) - x);
+		double y = 1. - ((lo - (x * c) / (2. - c)) - hi);
+		// scale by 2^k
+		if (k == 1024)
+			return y * 2. * TWO_1023;
+		if (k >= -1021)
+			return Double.longBitsToDouble(Double.doubleToLongBits(y)
+					+ ((long) k << 52));
+		return Double.longBitsToDouble(Double.doubleToLongBits(y)
+				+ ((long) (k + 1000) << 52))
+				* TWO_M1000;
 	}
 
-	static private double _log(double x) {
+	/**
+	 * Natural logarithm, after fdlibm's e_log.c. The argument is reduced to
+	 * x = 2^k * (1 + f) with sqrt(2)/2 < 1 + f < sqrt(2), and log(1 + f) comes
+	 * from a degree 14 minimax polynomial in s = f / (2 + f).
+	 * 
+	 * The error is less than 1 ulp.
+	 * 
+	 * @param x
+	 *            double
+	 * @return double ln(x), NaN if x is not positive
+	 */
+	static public double log(double x) {
 		if (!(x > 0.))
 			return Double.NaN;
 		//
-		double f = 0.0;
-		//
-		int appendix = 0;
-		while (x > 0.0 && x <= 1.0) {
-			x *= 2.0;
-			appendix++;
+		long bits = Double.doubleToLongBits(x);
+		int hx = (int) (bits >>> 32);
+		int k = 0;
+		// subnormal, scale up to a normal number
+		if (hx < 0x00100000) {
+			k -= 54;
+			x *= TWO_54;
+			bits = Double.doubleToLongBits(x);
+			hx = (int) (bits >>> 32);
 		}
+		// infinity
+		if (hx >= 0x7ff00000)
+			return x;
 		//
-		x /= 2.0;
-		appendix--;
-		//
-		double y1 = x - 1.;
-		double y2 = x + 1.;
-		double y = y1 / y2;
-		//
-		double k = y;
-		y2 = k * y;
-		//
-		for (long i = 1; i < 50; i += 2) {
-			f += k / i;
-			k *= y2;
+		k += (hx >> 20) - 1023;
+		hx &= 0x000fffff;
+		// normalize x or x / 2 into [sqrt(2)/2, sqrt(2))
+		int i = (hx + 0x95f64) & 0x100000;
+		x = Double.longBitsToDouble(((long) (hx | (i ^ 0x3ff00000)) << 32)
+				| (bits & 0xffffffffL));
+		k += (i >> 20);
+		double f = x - 1.;
+		double dk = k;
+		// |f| < 2^-20
+		if ((0x000fffff & (2 + hx)) < 3) {
+			if (f == 0.) {
+				if (k == 0)
+					return 0.;
+				return dk * LN2_HI + dk * LN2_LO;
+			}
+			double r = f * f * (0.5 - 0.33333333333333333 * f);
+			if (k == 0)
+				return f - r;
+			return dk * LN2_HI - ((r - dk * LN2_LO) - f);
 		}
-		//
-		f *= 2.0;
-		for (int i = 0; i < appendix; i++)
-			f += LOGdiv2;
-		//
-		return f;
-	}
-
-	static public double log(double x) {
-		if (!(x > 0.))
-			return Double.NaN;
-		//
-		if (x == 1.0)
-			return 0.0;
-		// Argument of _log must be (0; 1]
-		if (x > 1.) {
-			x = 1 / x;
-			return -_log(x);
+		// polynomial on s = f / (2 + f)
+		double s = f / (2. + f);
+		double z = s * s;
+		double w = z * z;
+		double t1 = w * (LG2 + w * (LG4 + w * LG6));
+		double t2 = z * (LG1 + w * (LG3 + w * (LG5 + w * LG7)));
+		double r = t2 + t1;
+		if (((hx - 0x6147a) | (0x6b851 - hx)) > 0) {
+			double hfsq = 0.5 * f * f;
+			if (k == 0)
+				return f - (hfsq - s * (hfsq + r));
+			return dk * LN2_HI - ((hfsq - (s * (hfsq + r) + dk * LN2_LO)) - f);
 		}
-		;
-		//
-		return _log(x);
+		if (k == 0)
+			return f - s * (f - r);
+		return dk * LN2_HI - ((s * (f - r) - dk * LN2_LO) - f);
 	}
 
 	static public double log10(double x) {
 		return log(x) / LOG10;
 	}
 
+	/**
+	 * x raised to the power y. Integer exponents are calculated by repeated
+	 * squaring, which takes at most 2 * log2(|y|) multiplications with an
+	 * error below log2(|y|) ulp. Other exponents are calculated as
+	 * exp(y * log(x)), whose error is about 1 + |y * log(x)| ulp, because the
+	 * rounding error of the product is magnified by exp; for the apertures
+	 * calculated by {@link phototools.Aperture} that is below 3 ulp.
+	 * 
+	 * @param x
+	 *            double
+	 * @param y
+	 *            double
+	 * @return double x^y, NaN for a negative x and a fractional y
+	 */
 	static public double pow(double x, double y) {
 		if (y == 0.)
 			return 1.;
@@ -204,12 +362,20 @@ public class MathUtility {
 		//
 		if (integerValue) {
 			boolean neg = false;
-			if (y < 0.)
+			if (y < 0.) {
 				neg = true;
+				l = -l;
+			}
 			//
-			double result = x;
-			for (long i = 1; i < (neg ? -l : l); i++)
-				result = result * x;
+			double result = 1.;
+			double square = x;
+			while (l != 0) {
+				if ((l & 1) != 0)
+					result *= square;
+				l >>>= 1;
+				if (l != 0)
+					square *= square;
+			}
 			//
 			if (neg)
 				return 1. / result;
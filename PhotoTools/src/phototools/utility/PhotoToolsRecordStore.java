@@ -3,16 +3,55 @@
  */
 package phototools.utility;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import javax.microedition.rms.InvalidRecordIDException;
 import javax.microedition.rms.RecordEnumeration;
 import javax.microedition.rms.RecordStore;
 import javax.microedition.rms.RecordStoreException;
 
 /**
- * @author tstavenger
+ * Persist the user's options. Options are read from the record store once and
+ * then served from memory; changes are written back in a single batch when
+ * the application is paused or destroyed, or after a short idle period.
+ * 
+ * All options are stored together in one binary record, {@link #RECORD_ID}:
+ * 
+ * <pre>
+ * int    MAGIC
+ * byte   VERSION
+ * int    aperture scale selected index
+ * int    camera selected index
+ * int    unit selected index
+ * int    focal length
+ * int    aperture selected index
+ * double focus distance
+ * int    arithmetic selected index (version 2)
+ * </pre>
  * 
+ * Fields are only ever appended, so a newer version can still read the
+ * fields of an older one. Stores written by earlier releases, one
+ * "key=value" record per option, are migrated the first time they are read.
+ * 
+ * @author tstavenger
  */
 public class PhotoToolsRecordStore {
 	private static final String RECORD_STORE_NAME = "PhotoToolsOptions";
+
+	/**
+	 * Record holding every option. The first record added to a new record
+	 * store always gets this id.
+	 */
+	private static final int RECORD_ID = 1;
+	private static final int MAGIC = 0x50544F50;
+	private static final byte VERSION = 2;
+
 	private static final String APERTURE_SCALE_KEY = "apertureScale";
 	private static final String CAMERA_KEY = "camera";
 	private static final String UNIT_KEY = "unit";
@@ -21,133 +60,424 @@ public class PhotoToolsRecordStore {
 	private static final String FOCUS_DISTANCE_KEY = "focusDistance";
 	private static final String DELIMITER = "=";
 
-	private static String load(String key, String defaultValue) {
+	/**
+	 * Milliseconds to wait after the last change before dirty options are
+	 * written to the record store.
+	 */
+	private static final long IDLE_FLUSH_DELAY = 2000;
+
+	private static boolean loaded;
+	private static boolean dirty;
+
+	private static int apertureScaleSelectedIndex = 0;
+	private static int cameraSelectedIndex = 0;
+	private static int unitSelectedIndex = 0;
+	private static int focalLength = 50;
+	private static int apertureSelectedIndex = 0;
+	private static double focusDistance = 10;
+	private static int arithmeticSelectedIndex = 0;
+
+	private static Timer flushTimer;
+	private static TimerTask flushTask;
+
+	/**
+	 * Load the options from the record store the first time they are needed.
+	 */
+	private static synchronized void ensureLoaded() {
+		if (!loaded) {
+			loaded = true;
+			loadAll();
+		}
+	}
+
+	/**
+	 * Forget the options read so far and restore the defaults, so the next
+	 * access reads the record store again. Unsaved changes are lost; used by
+	 * tests.
+	 */
+	static synchronized void unload() {
+		if (flushTask != null) {
+			flushTask.cancel();
+			flushTask = null;
+		}
+
+		loaded = false;
+		dirty = false;
+		apertureScaleSelectedIndex = 0;
+		cameraSelectedIndex = 0;
+		unitSelectedIndex = 0;
+		focalLength = 50;
+		apertureSelectedIndex = 0;
+		focusDistance = 10;
+		arithmeticSelectedIndex = 0;
+	}
+
+	/**
+	 * Read the options record with a single getRecord call. If the record
+	 * store was written by an earlier release, migrate its "key=value" records
+	 * to the binary record.
+	 */
+	private static void loadAll() {
 		RecordStore recordStore = null;
-		RecordEnumeration recordEnumeration = null;
-		String value = defaultValue;
+		boolean migrate = false;
 
 		try {
 			try {
 				recordStore = RecordStore.openRecordStore(RECORD_STORE_NAME,
 						true);
-				recordEnumeration = recordStore.enumerateRecords(null, null,
-						false);
 
-				while (recordEnumeration.hasNextElement()) {
-					byte[] raw = recordEnumeration.nextRecord();
-					String option = new String(raw);
+				if (recordStore.getNumRecords() > 0) {
+					byte[] raw = null;
 
-					// Parse out the key/value pair
-					int index = option.indexOf(DELIMITER);
-					String currentKey = option.substring(0, index);
+					try {
+						raw = recordStore.getRecord(RECORD_ID);
+					} catch (InvalidRecordIDException e) {
+						// the first record was deleted, so it must be legacy
+					}
 
-					if (currentKey.equals(key)) {
-						value = option.substring(index + 1);
+					if (raw == null || !readOptions(raw)) {
+						readLegacyOptions(recordStore);
+						migrate = true;
 					}
 				}
 			} finally {
-				if (recordEnumeration != null) {
-					recordEnumeration.destroy();
-				}
-
 				if (recordStore != null) {
 					recordStore.closeRecordStore();
 				}
 			}
 		} catch (RecordStoreException e) {
-			// return the default
+			// use the defaults
+		}
+
+		if (migrate) {
+			dirty = true;
+			flush();
 		}
+	}
 
-		return value;
+	/**
+	 * Parse the binary options record.
+	 * 
+	 * @param raw
+	 *            byte[] record
+	 * @return boolean false if the record is not a binary options record
+	 */
+	private static boolean readOptions(byte[] raw) {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
 
+		try {
+			if (raw.length < 5 || in.readInt() != MAGIC) {
+				return false;
+			}
+
+			byte version = in.readByte();
+
+			apertureScaleSelectedIndex = in.readInt();
+			cameraSelectedIndex = in.readInt();
+			unitSelectedIndex = in.readInt();
+			focalLength = in.readInt();
+			apertureSelectedIndex = in.readInt();
+			focusDistance = in.readDouble();
+
+			if (version >= 2) {
+				arithmeticSelectedIndex = in.readInt();
+			}
+		} catch (IOException e) {
+			// truncated record, keep the defaults for the missing fields
+		}
+
+		return true;
 	}
 
-	private static void save(String key, Object value) {
+	/**
+	 * Read the one "key=value" record per option layout used by earlier
+	 * releases.
+	 * 
+	 * @param recordStore
+	 *            open RecordStore
+	 * @throws RecordStoreException
+	 */
+	private static void readLegacyOptions(RecordStore recordStore)
+			throws RecordStoreException {
+		RecordEnumeration recordEnumeration = recordStore.enumerateRecords(
+				null, null, false);
+
+		try {
+			while (recordEnumeration.hasNextElement()) {
+				String option = new String(recordEnumeration.nextRecord());
+
+				// Parse out the key/value pair
+				int index = option.indexOf(DELIMITER);
+
+				if (index > 0) {
+					readLegacyOption(option.substring(0, index), option
+							.substring(index + 1));
+				}
+			}
+		} finally {
+			recordEnumeration.destroy();
+		}
+	}
+
+	private static void readLegacyOption(String key, String value) {
+		try {
+			if (APERTURE_SCALE_KEY.equals(key)) {
+				apertureScaleSelectedIndex = Integer.parseInt(value);
+			} else if (CAMERA_KEY.equals(key)) {
+				cameraSelectedIndex = Integer.parseInt(value);
+			} else if (UNIT_KEY.equals(key)) {
+				unitSelectedIndex = Integer.parseInt(value);
+			} else if (FOCAL_LENGTH_KEY.equals(key)) {
+				focalLength = Integer.parseInt(value);
+			} else if (APERTURE_KEY.equals(key)) {
+				apertureSelectedIndex = Integer.parseInt(value);
+			} else if (FOCUS_DISTANCE_KEY.equals(key)) {
+				focusDistance = Double.parseDouble(value);
+			}
+		} catch (NumberFormatException e) {
+			// keep the default
+		}
+	}
+
+	/**
+	 * @return byte[] the binary options record
+	 */
+	private static byte[] writeOptions() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(37);
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		try {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeInt(apertureScaleSelectedIndex);
+			out.writeInt(cameraSelectedIndex);
+			out.writeInt(unitSelectedIndex);
+			out.writeInt(focalLength);
+			out.writeInt(apertureSelectedIndex);
+			out.writeDouble(focusDistance);
+			out.writeInt(arithmeticSelectedIndex);
+		} catch (IOException e) {
+			// cannot happen writing to memory
+		}
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Mark the options dirty. The record store is not touched until
+	 * {@link #flush()}, which happens automatically once no option has
+	 * changed for {@link #IDLE_FLUSH_DELAY}.
+	 */
+	private static void changed() {
+		dirty = true;
+		scheduleFlush();
+	}
+
+	/**
+	 * (Re)start the idle timer so that a burst of changes results in a single
+	 * {@link #flush()}.
+	 */
+	private static void scheduleFlush() {
+		if (flushTask != null) {
+			flushTask.cancel();
+		}
+
+		if (flushTimer == null) {
+			flushTimer = new Timer();
+		}
+
+		flushTask = new TimerTask() {
+			public void run() {
+				flush();
+			}
+		};
+
+		flushTimer.schedule(flushTask, IDLE_FLUSH_DELAY);
+	}
+
+	/**
+	 * Write the options record if any option has changed. A record store that
+	 * does not hold the options record yet, including one left behind by an
+	 * earlier release, is recreated so the record gets {@link #RECORD_ID}.
+	 */
+	public static synchronized void flush() {
+		if (flushTask != null) {
+			flushTask.cancel();
+			flushTask = null;
+		}
+
+		if (!dirty) {
+			return;
+		}
+
+		byte[] raw = writeOptions();
 		RecordStore recordStore = null;
-		RecordEnumeration recordEnumeration = null;
 
 		try {
 			try {
 				recordStore = RecordStore.openRecordStore(RECORD_STORE_NAME,
 						true);
-				recordEnumeration = recordStore.enumerateRecords(null, null,
-						false);
 
-				// Delete the current value for this key
-				while (recordEnumeration.hasNextElement()) {
-					int id = recordEnumeration.nextRecordId();
-					byte[] raw = recordStore.getRecord(id);
-					String option = new String(raw);
-
-					// Parse out the key/value pair
-					int index = option.indexOf(DELIMITER);
-					String currentKey = option.substring(0, index);
-
-					if (currentKey.equals(key)) {
-						recordStore.deleteRecord(id);
+				if (isOptionsRecord(recordStore)) {
+					recordStore.setRecord(RECORD_ID, raw, 0, raw.length);
+				} else {
+					if (recordStore.getNextRecordID() != RECORD_ID) {
+						recordStore.closeRecordStore();
+						recordStore = null;
+						RecordStore.deleteRecordStore(RECORD_STORE_NAME);
+						recordStore = RecordStore.openRecordStore(
+								RECORD_STORE_NAME, true);
 					}
+
+					recordStore.addRecord(raw, 0, raw.length);
 				}
 
-				// Save the new value for this key
-				String option = key + DELIMITER + value;
-				recordStore.addRecord(option.getBytes(), 0, option.length());
+				dirty = false;
 			} finally {
-				if (recordEnumeration != null)
-					recordEnumeration.destroy();
-				if (recordStore != null)
+				if (recordStore != null) {
 					recordStore.closeRecordStore();
+				}
 			}
 		} catch (RecordStoreException e) {
-			// oh well, can't say we didn't try
+			// oh well, can't say we didn't try; the options stay dirty
+		}
+	}
+
+	/**
+	 * @param recordStore
+	 *            open RecordStore
+	 * @return boolean true if {@link #RECORD_ID} holds binary options
+	 * @throws RecordStoreException
+	 */
+	private static boolean isOptionsRecord(RecordStore recordStore)
+			throws RecordStoreException {
+		if (recordStore.getNumRecords() == 0) {
+			return false;
+		}
+
+		try {
+			byte[] raw = recordStore.getRecord(RECORD_ID);
+
+			return raw.length >= 4 && (raw[0] & 0xFF) == (MAGIC >>> 24)
+					&& (raw[1] & 0xFF) == ((MAGIC >>> 16) & 0xFF)
+					&& (raw[2] & 0xFF) == ((MAGIC >>> 8) & 0xFF)
+					&& (raw[3] & 0xFF) == (MAGIC & 0xFF);
+		} catch (InvalidRecordIDException e) {
+			return false;
 		}
 	}
 
-	public static int getApertureScaleSelectedIndex() {
-		return Integer.parseInt(load(APERTURE_SCALE_KEY, "0"));
+	/**
+	 * Flush any dirty options and stop the idle timer.
+	 */
+	public static synchronized void close() {
+		flush();
+
+		if (flushTimer != null) {
+			flushTimer.cancel();
+			flushTimer = null;
+		}
 	}
 
-	public static void setApertureScaleSelectedIndex(int selectedIndex) {
-		save(APERTURE_SCALE_KEY, new Integer(selectedIndex));
+	public static synchronized int getApertureScaleSelectedIndex() {
+		ensureLoaded();
+		return apertureScaleSelectedIndex;
 	}
 
-	public static int getCameraSelectedIndex() {
-		return Integer.parseInt(load(CAMERA_KEY, "0"));
+	public static synchronized void setApertureScaleSelectedIndex(
+			int selectedIndex) {
+		ensureLoaded();
+
+		if (apertureScaleSelectedIndex != selectedIndex) {
+			apertureScaleSelectedIndex = selectedIndex;
+			changed();
+		}
 	}
 
-	public static void setCameraScaleSelectedIndex(int selectedIndex) {
-		save(CAMERA_KEY, new Integer(selectedIndex));
+	public static synchronized int getCameraSelectedIndex() {
+		ensureLoaded();
+		return cameraSelectedIndex;
 	}
 
-	public static int getUnitSelectedIndex() {
-		return Integer.parseInt(load(UNIT_KEY, "0"));
+	public static synchronized void setCameraScaleSelectedIndex(
+			int selectedIndex) {
+		ensureLoaded();
+
+		if (cameraSelectedIndex != selectedIndex) {
+			cameraSelectedIndex = selectedIndex;
+			changed();
+		}
 	}
 
-	public static void setUnitSelectedIndex(int selectedIndex) {
-		save(UNIT_KEY, new Integer(selectedIndex));
+	public static synchronized int getUnitSelectedIndex() {
+		ensureLoaded();
+		return unitSelectedIndex;
 	}
 
-	public static int getFocalLength() {
-		return Integer.parseInt(load(FOCAL_LENGTH_KEY, "50"));
+	public static synchronized void setUnitSelectedIndex(int selectedIndex) {
+		ensureLoaded();
+
+		if (unitSelectedIndex != selectedIndex) {
+			unitSelectedIndex = selectedIndex;
+			changed();
+		}
 	}
 
-	public static void setFocalLength(int focalLength) {
-		save(FOCAL_LENGTH_KEY, new Integer(focalLength));
+	public static synchronized int getFocalLength() {
+		ensureLoaded();
+		return focalLength;
 	}
 
-	public static int getApertureSelectedIndex() {
-		return Integer.parseInt(load(APERTURE_KEY, "0"));
+	public static synchronized void setFocalLength(int focalLength) {
+		ensureLoaded();
+
+		if (PhotoToolsRecordStore.focalLength != focalLength) {
+			PhotoToolsRecordStore.focalLength = focalLength;
+			changed();
+		}
 	}
 
-	public static void setApertureSelectedIndex(int selectedIndex) {
-		save(APERTURE_KEY, new Integer(selectedIndex));
+	public static synchronized int getApertureSelectedIndex() {
+		ensureLoaded();
+		return apertureSelectedIndex;
 	}
 
-	public static double getFocusDistance() {
-		return Double.parseDouble(load(FOCUS_DISTANCE_KEY, "10"));
+	public static synchronized void setApertureSelectedIndex(int selectedIndex) {
+		ensureLoaded();
+
+		if (apertureSelectedIndex != selectedIndex) {
+			apertureSelectedIndex = selectedIndex;
+			changed();
+		}
+	}
+
+	public static synchronized double getFocusDistance() {
+		ensureLoaded();
+		return focusDistance;
+	}
+
+	public static synchronized void setFocusDistance(double focusDistance) {
+		ensureLoaded();
+
+		if (PhotoToolsRecordStore.focusDistance != focusDistance) {
+			PhotoToolsRecordStore.focusDistance = focusDistance;
+			changed();
+		}
+	}
+
+	public static synchronized int getArithmeticSelectedIndex() {
+		ensureLoaded();
+		return arithmeticSelectedIndex;
 	}
 
-	public static void setFocusDistance(double focusDistance) {
-		save(FOCUS_DISTANCE_KEY, new Double(focusDistance));
+	public static synchronized void setArithmeticSelectedIndex(
+			int selectedIndex) {
+		ensureLoaded();
+
+		if (arithmeticSelectedIndex != selectedIndex) {
+			arithmeticSelectedIndex = selectedIndex;
+			changed();
+		}
 	}
 
 	private PhotoToolsRecordStore() {
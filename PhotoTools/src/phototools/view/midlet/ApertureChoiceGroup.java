@@ -69,6 +69,13 @@ public class ApertureChoiceGroup extends ChoiceGroup {
 		}
 	}
 
+	/**
+	 * @return Aperture whose stops are the choices
+	 */
+	public Aperture getAperture() {
+		return aperture;
+	}
+
 	/**
 	 * Get the selected Camera.
 	 * 
@@ -3,69 +3,186 @@
  */
 package phototools.view.midlet;
 
-import javax.microedition.lcdui.ChoiceGroup;
-import javax.microedition.lcdui.Image;
+import javax.microedition.lcdui.CustomItem;
+import javax.microedition.lcdui.Font;
+import javax.microedition.lcdui.Graphics;
 
 import phototools.Camera;
+import phototools.CameraRegistry;
 
 /**
- * @author tstavenger
+ * Choose a camera from the {@link CameraRegistry}. Unlike a
+ * {@link javax.microedition.lcdui.ChoiceGroup}, which needs every model name
+ * up front, the model names are fetched from the registry only when they are
+ * shown, so only a page of them is in memory however many cameras there are.
+ * {@link FormCanvas} paints it as a {@link VirtualChoice}.
  * 
+ * Typing on the keypad jumps to the first model spelled by the keys, as in a
+ * phone book.
  */
-public class CameraChoiceGroup extends ChoiceGroup {
-	
+public class CameraChoiceGroup extends CustomItem implements VirtualChoice,
+		KeypadSearchable {
+	/** Milliseconds after the last key before a new search starts */
+	private static final long SEARCH_TIMEOUT = 1500;
+
+	private int selectedIndex;
+	private StringBuffer searchDigits = new StringBuffer();
+	private long lastSearchTime;
+
 	/**
-	 * Convert the array of Camera to an array of String.
+	 * Offer the cameras of the {@link CameraRegistry} by model name, without
+	 * reading the cameras themselves.
 	 * 
 	 * @param label
 	 *            choice group label
-	 * @param choiceType
-	 *            choice type
-	 * @param cameraElements
-	 *            array of Camera
-	 * @param imageElements
-	 *            array of images
 	 */
-	public CameraChoiceGroup(String label, int choiceType,
-			Camera[] cameraElements, Image[] imageElements) {
-		super(label, choiceType, toStringElements(cameraElements),
-				imageElements);
+	public CameraChoiceGroup(String label) {
+		super(label);
 	}
 
-	/**
-	 * Convert an array of Camera to an array of Strings (model names)
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see phototools.view.midlet.VirtualChoice#size()
+	 */
+	public int size() {
+		return CameraRegistry.size();
+	}
+
+	/*
+	 * (non-Javadoc)
 	 * 
-	 * @param cameraElements
-	 *            array of Camera
-	 * @return array of String
+	 * @see phototools.view.midlet.VirtualChoice#getSelectedIndex()
 	 */
-	private static String[] toStringElements(Camera[] cameraElements) {
-		String[] strings = new String[cameraElements.length];
+	public int getSelectedIndex() {
+		return selectedIndex;
+	}
 
-		for (int i = 0; i < cameraElements.length; i++) {
-			strings[i] = cameraElements[i].getModel();
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see phototools.view.midlet.VirtualChoice#setSelectedIndex(int)
+	 */
+	public void setSelectedIndex(int elementNum) {
+		if (elementNum < 0 || elementNum >= size()) {
+			throw new IndexOutOfBoundsException();
 		}
 
-		return strings;
+		selectedIndex = elementNum;
+		repaint();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see phototools.view.midlet.VirtualChoice#getString(int)
+	 */
+	public String getString(int elementNum) {
+		return CameraRegistry.getModel(elementNum);
 	}
 
 	/**
-	 * Get the Camera at the given index
+	 * Get the Camera at the given index, reading it the first time
 	 * 
 	 * @param elementNum
 	 *            index
-	 * @return double converted from String
+	 * @return Camera, or null if it could not be read
 	 */
 	public Camera getCamera(int elementNum) {
-		return Camera.selectCamera(elementNum);
+		return CameraRegistry.getCamera(elementNum);
 	}
 	
 	/**
 	 * Get the selected Camera.
 	 * 
-	 * @return Camera
+	 * @return Camera, or null if it could not be read
 	 */
 	public Camera getSelectedCamera() {
 		return getCamera(getSelectedIndex());
 	}
+
+	/**
+	 * Add the key to the digits typed so far and select the first camera they
+	 * spell. If nothing matches, start over with just this key.
+	 * 
+	 * @see phototools.view.midlet.KeypadSearchable#keypadSearch(char)
+	 */
+	public boolean keypadSearch(char key) {
+		long now = System.currentTimeMillis();
+
+		if (now - lastSearchTime > SEARCH_TIMEOUT) {
+			searchDigits.setLength(0);
+		}
+
+		lastSearchTime = now;
+		searchDigits.append(key);
+
+		int index = CameraRegistry.findByKeypad(searchDigits.toString());
+
+		if (index < 0 && searchDigits.length() > 1) {
+			searchDigits.setLength(0);
+			searchDigits.append(key);
+			index = CameraRegistry.findByKeypad(searchDigits.toString());
+		}
+
+		if (index < 0 || index == getSelectedIndex()) {
+			return false;
+		}
+
+		setSelectedIndex(index);
+
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.microedition.lcdui.CustomItem#getMinContentHeight()
+	 */
+	protected int getMinContentHeight() {
+		return Font.getDefaultFont().getHeight();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.microedition.lcdui.CustomItem#getMinContentWidth()
+	 */
+	protected int getMinContentWidth() {
+		return Font.getDefaultFont().charWidth('M') * 8;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.microedition.lcdui.CustomItem#getPrefContentHeight(int)
+	 */
+	protected int getPrefContentHeight(int width) {
+		return getMinContentHeight();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.microedition.lcdui.CustomItem#getPrefContentWidth(int)
+	 */
+	protected int getPrefContentWidth(int height) {
+		return getMinContentWidth();
+	}
+
+	/**
+	 * Paint just the selected model, for when this is shown on a native
+	 * {@link javax.microedition.lcdui.Form} rather than a {@link FormCanvas}.
+	 * 
+	 * @see javax.microedition.lcdui.CustomItem#paint(javax.microedition.lcdui.Graphics,
+	 *      int, int)
+	 */
+	protected void paint(Graphics graphics, int width, int height) {
+		String model = getString(getSelectedIndex());
+
+		if (model != null) {
+			graphics.setFont(Font.getDefaultFont());
+			graphics.drawString(model, 0, 0, Graphics.TOP | Graphics.LEFT);
+		}
+	}
 }
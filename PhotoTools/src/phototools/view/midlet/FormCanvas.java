@@ -3,6 +3,8 @@
  */
 package phototools.view.midlet;
 
+import java.util.Hashtable;
+
 import javax.microedition.lcdui.Canvas;
 import javax.microedition.lcdui.ChoiceGroup;
 import javax.microedition.lcdui.Command;
@@ -14,6 +16,7 @@ import javax.microedition.lcdui.Font;
 import javax.microedition.lcdui.Form;
 import javax.microedition.lcdui.Gauge;
 import javax.microedition.lcdui.Graphics;
+import javax.microedition.lcdui.Image;
 import javax.microedition.lcdui.ImageItem;
 import javax.microedition.lcdui.Item;
 import javax.microedition.lcdui.Spacer;
@@ -24,8 +27,41 @@ import javax.microedition.midlet.MIDlet;
 /**
  * Display using a {@link Canvas}, but still provide a generic layout using a
  * {@link Form}.
+ * 
+ * The kind and top of every item are worked out once, when the form is set,
+ * so painting dispatches on an int rather than testing the class of every
+ * item on every frame. Items changed while handling a key or command are
+ * marked dirty, and only their rows are repainted; painting skips the items
+ * outside the clip.
+ * 
+ * A form taller than the screen scrolls: the selected item is kept on
+ * screen, and moving down past the last selectable item scrolls on to show
+ * the items below it before wrapping to the top. Only the items on screen are
+ * painted, found by a binary search over the item tops, so the cost of a
+ * frame depends on the height of the screen rather than the length of the
+ * form.
+ * 
+ * Only the labels are cached: they never change while a form is shown, so
+ * each is drawn once into an off-screen image when the form is set, and each
+ * frame copies the images and draws the values on top. The decoration of the
+ * selected item, its outline and the arrows of a choice, is drawn directly on
+ * every frame so it never hides the end of a long label.
  */
 public class FormCanvas extends Canvas implements CommandListener {
+	/*
+	 * Kinds of item, each painted by its own method
+	 */
+	private static final int STRING_ITEM = 0;
+	private static final int DATE_FIELD = 1;
+	private static final int TEXT_FIELD = 2;
+	private static final int CHOICE_GROUP = 3;
+	private static final int SPACER = 4;
+	private static final int GAUGE = 5;
+	private static final int IMAGE_ITEM = 6;
+	private static final int VIRTUAL_CHOICE = 7;
+	private static final int CUSTOM_ITEM = 8;
+	private static final int UNKNOWN_ITEM = 9;
+
 	private MIDlet parent;
 
 	private PhotoToolsForm currentForm;
@@ -34,6 +70,24 @@ public class FormCanvas extends Canvas implements CommandListener {
 	private Font textFont;
 	private int selectedIndex;
 	private int cursorIndex;
+	private int paintCount;
+
+	/**
+	 * Top pixel of each item of the form, and the bottom of the last
+	 */
+	private int[] itemTops;
+
+	/** Kind of each item of the form, such as {@link #TEXT_FIELD} */
+	private int[] itemTypes;
+
+	/** Pixel of the form shown at the top of the screen */
+	private int scrollTop;
+
+	/** Label of each item drawn in the label font, by item */
+	private Hashtable labelImages = new Hashtable();
+
+	/** Items whose rows need repainting */
+	private boolean[] dirtyItems;
 
 	private Command clearCommand = new Command("Clear",
 			"Delete previous character", Command.CANCEL, Integer.MIN_VALUE);
@@ -94,6 +148,13 @@ public class FormCanvas extends Canvas implements CommandListener {
 		return getHeight() / 2;
 	}
 
+	/**
+	 * @return the number of times this canvas has been painted
+	 */
+	public final int getPaintCount() {
+		return paintCount;
+	}
+
 	/**
 	 * @return the selectedIndex
 	 */
@@ -110,8 +171,8 @@ public class FormCanvas extends Canvas implements CommandListener {
 
 	/**
 	 * Add the given number represented by keyCode into the currently selected
-	 * {@link TextField}. If the currently selected {@link Item} is not a
-	 * {@link TextField}, ignore the input.
+	 * {@link TextField}, or search with it in the currently selected
+	 * {@link KeypadSearchable}. Otherwise, ignore the input.
 	 * 
 	 * @param keyCode
 	 *            int key pressed
@@ -119,7 +180,12 @@ public class FormCanvas extends Canvas implements CommandListener {
 	private void handleNumericKey(int keyCode) {
 		Item item = getForm().get(getSelectedIndex());
 
-		if (item instanceof TextField) {
+		if (item instanceof KeypadSearchable) {
+			// the numeric key codes are the characters on the keys
+			if (((KeypadSearchable) item).keypadSearch((char) keyCode)) {
+				notifyItemStateChanged(item);
+			}
+		} else if (item instanceof TextField) {
 			TextField textField = (TextField) item;
 
 			switch (keyCode) {
@@ -174,6 +240,7 @@ public class FormCanvas extends Canvas implements CommandListener {
 			}
 
 			setCursorIndex(getCursorIndex() + 1);
+			notifyItemStateChanged(item);
 		}
 	}
 
@@ -190,10 +257,12 @@ public class FormCanvas extends Canvas implements CommandListener {
 				if (getCursorIndex() < 0) {
 					setCursorIndex(0);
 				}
+
+				notifyItemStateChanged(item);
 			}
 		}
-		
-		repaint();
+
+		markItemDirty(getSelectedIndex());
 	}
 
 	private boolean isNumericKey(int keyCode) {
@@ -210,11 +279,20 @@ public class FormCanvas extends Canvas implements CommandListener {
 	 *         allows input
 	 */
 	protected boolean isSelectableItem() {
+		return isSelectableItem(getSelectedIndex());
+	}
+
+	/**
+	 * @param index
+	 *            int index of an {@link Item} of the form
+	 * @return boolean true if the {@link Item} is one that allows input
+	 */
+	protected boolean isSelectableItem(int index) {
 		boolean selectable = false;
-		Item item = getForm().get(getSelectedIndex());
+		Item item = getForm().get(index);
 
 		if (item instanceof DateField || item instanceof TextField
-				|| item instanceof ChoiceGroup) {
+				|| item instanceof ChoiceGroup || item instanceof VirtualChoice) {
 			selectable = true;
 		}
 
@@ -227,7 +305,11 @@ public class FormCanvas extends Canvas implements CommandListener {
 	 * @see javax.microedition.lcdui.Canvas#keyPressed(int)
 	 */
 	protected void keyPressed(int keyCode) {
+		// the selected item changes, or loses its selection
+		markItemDirty(getSelectedIndex());
+
 		if (isNumericKey(keyCode)) {
+			scrollToSelectedItem();
 			handleNumericKey(keyCode);
 		} else {
 			switch (getGameAction(keyCode)) {
@@ -240,10 +322,12 @@ public class FormCanvas extends Canvas implements CommandListener {
 				break;
 
 			case Canvas.RIGHT:
+				scrollToSelectedItem();
 				nextSelection();
 				break;
 
 			case Canvas.LEFT:
+				scrollToSelectedItem();
 				previousSelection();
 				break;
 
@@ -252,7 +336,8 @@ public class FormCanvas extends Canvas implements CommandListener {
 			}
 		}
 
-		repaint();
+		markItemDirty(getSelectedIndex());
+		repaintDirtyItems();
 	}
 
 	/**
@@ -268,26 +353,118 @@ public class FormCanvas extends Canvas implements CommandListener {
 
 	/**
 	 * Increment the {@link #selectedIndex} until it is on a selectable
-	 * {@link Item}
+	 * {@link Item}. Past the last selectable item, first scroll down to the
+	 * end of the form, then wrap to the first selectable item.
 	 * 
-	 * @see #isSelectableItem()
+	 * @see #isSelectableItem(int)
 	 */
 	protected final void nextSelectableItem() {
-		do {
-			setSelectedIndex(getSelectedIndex() + 1);
+		int next = findSelectableItem(getSelectedIndex() + 1, 1);
 
-			if (getSelectedIndex() >= getForm().size()) {
-				setSelectedIndex(0);
+		if (next == -1) {
+			if (scrollTop < getMaximumScrollTop()) {
+				scrollTo(scrollTop + getLabelFont().getHeight());
+				return;
 			}
-		} while (!isSelectableItem());
+
+			next = findSelectableItem(0, 1);
+		}
+
+		if (next != -1) {
+			setSelectedIndex(next);
+		}
 
 		resetItemState();
+		scrollToSelectedItem();
 	}
 
 	/**
-	 * If the currently selected {@link Item} is a {@link ChoiceGroup},
-	 * increment its selected element by 1. If the current selection is the last
-	 * one, wrap to the beginning.
+	 * @param from
+	 *            int index to start at
+	 * @param step
+	 *            int 1 to search forward, -1 to search backward
+	 * @return int index of the first selectable {@link Item} from the given
+	 *         index, without wrapping, or -1 if there is none
+	 */
+	private int findSelectableItem(int from, int step) {
+		for (int i = from; i >= 0 && i < getForm().size(); i += step) {
+			if (isSelectableItem(i)) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Scroll just enough for the selected {@link Item} to be on screen.
+	 */
+	protected final void scrollToSelectedItem() {
+		int index = getSelectedIndex();
+
+		if (index < 0 || index >= itemTypes.length) {
+			return;
+		}
+
+		if (itemTops[index] < scrollTop) {
+			scrollTo(itemTops[index]);
+		} else if (itemTops[index + 1] > scrollTop + getHeight()) {
+			scrollTo(itemTops[index + 1] - getHeight());
+		}
+	}
+
+	/**
+	 * Show the form from the given pixel at the top of the screen, or as near
+	 * as the length of the form allows, repainting if it moved.
+	 * 
+	 * @param top
+	 *            int pixel of the form
+	 */
+	private void scrollTo(int top) {
+		top = Math.max(0, Math.min(top, getMaximumScrollTop()));
+
+		if (top != scrollTop) {
+			scrollTop = top;
+			repaint();
+		}
+	}
+
+	/**
+	 * @return int largest {@link #scrollTop}, where the end of the form is at
+	 *         the bottom of the screen
+	 */
+	private int getMaximumScrollTop() {
+		return Math.max(0, itemTops[itemTypes.length] - getHeight());
+	}
+
+	/**
+	 * Find the item shown at a pixel by a binary search over the item tops.
+	 * 
+	 * @param y
+	 *            int pixel of the form
+	 * @return int index of the last item starting at or above y, or 0
+	 */
+	private int findItemAt(int y) {
+		int low = 0;
+		int high = itemTypes.length - 1;
+
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+
+			if (itemTops[middle] <= y) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * If the currently selected {@link Item} is a {@link ChoiceGroup} or a
+	 * {@link VirtualChoice}, increment its selected element by 1. If the
+	 * current selection is the last one, wrap to the beginning.
 	 */
 	protected final void nextSelection() {
 		Item item = getForm().get(getSelectedIndex());
@@ -301,11 +478,201 @@ public class FormCanvas extends Canvas implements CommandListener {
 			}
 
 			choiceGroup.setSelectedIndex(nextChoice, true);
+			notifyItemStateChanged(item);
+		} else if (item instanceof VirtualChoice) {
+			VirtualChoice choice = (VirtualChoice) item;
+			int nextChoice = choice.getSelectedIndex() + 1;
+
+			if (nextChoice >= choice.size()) {
+				nextChoice = 0;
+			}
+
+			choice.setSelectedIndex(nextChoice);
+			notifyItemStateChanged(item);
 		} else if (item instanceof TextField) {
 			setCursorIndex(getCursorIndex() + 1);
 		}
 	}
 
+	/**
+	 * Called by a {@link PhotoToolsForm} shown on this canvas when it changes
+	 * an {@link Item}, so its row is repainted.
+	 * 
+	 * @param form
+	 *            PhotoToolsForm the item belongs to
+	 * @param item
+	 *            Item which changed
+	 */
+	final void itemUpdated(PhotoToolsForm form, Item item) {
+		if (form != getForm()) {
+			return;
+		}
+
+		for (int i = 0; i < form.size(); i++) {
+			if (form.get(i) == item) {
+				markItemDirty(i);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Mark the item at index to be repainted by the next
+	 * {@link #repaintDirtyItems()}.
+	 * 
+	 * @param index
+	 *            int index of the item
+	 */
+	protected final void markItemDirty(int index) {
+		if (index >= 0 && index < dirtyItems.length) {
+			dirtyItems[index] = true;
+		}
+	}
+
+	/**
+	 * Request a repaint of the rows of the dirty items, one rectangle per run
+	 * of adjacent dirty items, and clear them.
+	 */
+	protected final void repaintDirtyItems() {
+		int i = 0;
+
+		while (i < dirtyItems.length) {
+			if (!dirtyItems[i]) {
+				i++;
+				continue;
+			}
+
+			int first = i;
+
+			while (i < dirtyItems.length && dirtyItems[i]) {
+				dirtyItems[i] = false;
+				i++;
+			}
+
+			repaint(0, itemTops[first] - scrollTop, getWidth(), itemTops[i]
+					- itemTops[first]);
+		}
+	}
+
+	/**
+	 * Lay out the current form, recording the kind and top of each item.
+	 * Called when the form is set, which includes switching to and back from
+	 * a sub form.
+	 */
+	private void layoutForm() {
+		int size = getForm().size();
+		int y = 0;
+
+		itemTops = new int[size + 1];
+		itemTypes = new int[size];
+		dirtyItems = new boolean[size];
+
+		for (int i = 0; i < size; i++) {
+			Item item = getForm().get(i);
+
+			itemTops[i] = y;
+			itemTypes[i] = getItemType(item);
+			y += getItemHeight(item);
+		}
+
+		itemTops[size] = y;
+
+		createLabelImages();
+	}
+
+	/**
+	 * Draw the label of every item of the current form into off-screen
+	 * images. A label changed after this is not shown until the form is set
+	 * again.
+	 */
+	private void createLabelImages() {
+		int height = getLabelFont().getHeight();
+
+		labelImages.clear();
+
+		for (int i = 0; i < itemTypes.length; i++) {
+			Item item = getForm().get(i);
+			String label = item.getLabel();
+
+			if (label == null || label.length() == 0
+					|| getItemHeight(item) != height) {
+				continue;
+			}
+
+			Image image = Image.createImage(getLabelFont().stringWidth(label),
+					height);
+			Graphics graphics = image.getGraphics();
+
+			graphics.setColor(0, 0, 0);
+			graphics.fillRect(0, 0, image.getWidth(), height);
+			drawLabelString(graphics, item, 0);
+
+			labelImages.put(item, image);
+		}
+	}
+
+	/**
+	 * The kind of item, which decides how it is painted. The order of the
+	 * tests matters, as a {@link VirtualChoice} is also a {@link CustomItem}.
+	 * 
+	 * @param item
+	 *            Item
+	 * @return int kind of item, such as {@link #TEXT_FIELD}
+	 */
+	private static int getItemType(Item item) {
+		if (item instanceof StringItem) {
+			return STRING_ITEM;
+		} else if (item instanceof DateField) {
+			return DATE_FIELD;
+		} else if (item instanceof TextField) {
+			return TEXT_FIELD;
+		} else if (item instanceof ChoiceGroup) {
+			return CHOICE_GROUP;
+		} else if (item instanceof Spacer) {
+			return SPACER;
+		} else if (item instanceof Gauge) {
+			return GAUGE;
+		} else if (item instanceof ImageItem) {
+			return IMAGE_ITEM;
+		} else if (item instanceof VirtualChoice) {
+			return VIRTUAL_CHOICE;
+		} else if (item instanceof CustomItem) {
+			return CUSTOM_ITEM;
+		}
+
+		return UNKNOWN_ITEM;
+	}
+
+	/**
+	 * Height of an {@link Item} as painted by this canvas. Sub classes which
+	 * paint an item taller or shorter must override this to match.
+	 * 
+	 * @param item
+	 *            Item to measure
+	 * @return int height in pixels
+	 */
+	protected int getItemHeight(Item item) {
+		if (item instanceof Spacer) {
+			return ((Spacer) item).getMinimumHeight();
+		} else if (item instanceof StringItem || item instanceof TextField
+				|| item instanceof ChoiceGroup || item instanceof VirtualChoice) {
+			return getLabelFont().getHeight();
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Tell the current {@link Form} that the value of the given {@link Item}
+	 * was changed through this canvas, as a native {@link Form} would.
+	 * 
+	 * @param item
+	 *            Item whose value changed
+	 */
+	private void notifyItemStateChanged(Item item) {
+		getForm().itemStateChanged(item);
+	}
+
 	/**
 	 * Perform some functions prior to the {@link Form} being painted.
 	 * 
@@ -327,11 +694,14 @@ public class FormCanvas extends Canvas implements CommandListener {
 	 * @see javax.microedition.lcdui.Canvas#paint(javax.microedition.lcdui.Graphics)
 	 */
 	protected final void paint(Graphics graphics) {
+		paintCount++;
+
 		setTitle(getForm().getTitle());
 		setTicker(getForm().getTicker());
 
 		graphics.setColor(0, 0, 0);
-		graphics.fillRect(0, 0, getWidth(), getHeight());
+		graphics.fillRect(graphics.getClipX(), graphics.getClipY(), graphics
+				.getClipWidth(), graphics.getClipHeight());
 
 		paintForm(graphics);
 	}
@@ -352,11 +722,40 @@ public class FormCanvas extends Canvas implements CommandListener {
 			int top, boolean selected) {
 		drawLabel(graphics, item, top);
 
+		if (selected) {
+			drawActiveChoice(graphics, top);
+		}
+
 		drawInputString(graphics, item.getString(item.getSelectedIndex()), top);
 
+		return top + getLabelFont().getHeight();
+	}
+
+	/**
+	 * Paint a {@link VirtualChoice} like a {@link ChoiceGroup}. Only the
+	 * selected element is fetched.
+	 * 
+	 * @param graphics
+	 *            Graphics to paint with
+	 * @param item
+	 *            Item implementing VirtualChoice to paint
+	 * @param top
+	 *            int top pixel
+	 * @return int pixel at bottom of the item (top of next item)
+	 */
+	protected int paintVirtualChoice(Graphics graphics, Item item, int top,
+			boolean selected) {
+		VirtualChoice choice = (VirtualChoice) item;
+
+		drawLabel(graphics, item, top);
+
 		if (selected) {
-			drawActiveRect(graphics, item, top);
-			fillSelectionTraingles(graphics, item, top);
+			drawActiveChoice(graphics, top);
+		}
+
+		if (choice.size() > 0) {
+			drawInputString(graphics, choice.getString(choice
+					.getSelectedIndex()), top);
 		}
 
 		return top + getLabelFont().getHeight();
@@ -370,6 +769,17 @@ public class FormCanvas extends Canvas implements CommandListener {
 		}
 	}
 
+	/**
+	 * Draw the outline and arrows of the selected choice, leaving the color
+	 * set for the value drawn on top. They are drawn directly rather than
+	 * from an image, as an opaque image would hide the end of a long label.
+	 */
+	private void drawActiveChoice(Graphics graphics, int top) {
+		drawActiveRect(graphics, null, top);
+		fillSelectionTraingles(graphics, null, top);
+		graphics.setColor(255, 255, 255);
+	}
+
 	protected void drawActiveRect(Graphics graphics, Item item, int top) {
 		graphics.setColor(105, 105, 105);
 		graphics.drawRect(getCenter(), top, getCenter() - 1, getLabelFont()
@@ -425,7 +835,8 @@ public class FormCanvas extends Canvas implements CommandListener {
 	}
 
 	/**
-	 * Paint the {@link Form} for this {@link FormCanvas}.
+	 * Paint the items of the {@link Form} for this {@link FormCanvas} which
+	 * fall within the clip.
 	 * 
 	 * @param graphics
 	 *            {@link Graphics} to paint on
@@ -433,28 +844,63 @@ public class FormCanvas extends Canvas implements CommandListener {
 	protected final void paintForm(Graphics graphics) {
 		onPaintForm(graphics);
 
-		int y = 0;
+		if (itemTypes.length != getForm().size()) {
+			// items were added or removed since the form was set
+			layoutForm();
+		}
+
+		int clipTop = graphics.getClipY() + scrollTop;
+		int clipBottom = clipTop + graphics.getClipHeight();
+
+		for (int i = findItemAt(clipTop); i < itemTypes.length
+				&& itemTops[i] < clipBottom; i++) {
+			if (itemTops[i + 1] <= clipTop) {
+				continue;
+			}
 
-		for (int i = 0; i < getForm().size(); i++) {
 			Item item = getForm().get(i);
 			boolean selected = i == selectedIndex;
+			int y = itemTops[i] - scrollTop;
+
+			switch (itemTypes[i]) {
+			case STRING_ITEM:
+				paintStringItem(graphics, (StringItem) item, y);
+				break;
+
+			case DATE_FIELD:
+				paintDateField(graphics, (DateField) item, y, selected);
+				break;
+
+			case TEXT_FIELD:
+				paintTextField(graphics, (TextField) item, y, selected);
+				break;
+
+			case CHOICE_GROUP:
+				paintChoiceGroup(graphics, (ChoiceGroup) item, y, selected);
+				break;
 
-			if (item instanceof StringItem) {
-				y = paintStringItem(graphics, (StringItem) item, y);
-			} else if (item instanceof DateField) {
-				y = paintDateField(graphics, (DateField) item, y, selected);
-			} else if (item instanceof TextField) {
-				y = paintTextField(graphics, (TextField) item, y, selected);
-			} else if (item instanceof ChoiceGroup) {
-				y = paintChoiceGroup(graphics, (ChoiceGroup) item, y, selected);
-			} else if (item instanceof Spacer) {
-				y = paintSpacer(graphics, (Spacer) item, y);
-			} else if (item instanceof Gauge) {
-				y = paintGauge(graphics, (Gauge) item, y);
-			} else if (item instanceof ImageItem) {
-				y = paintImageItem(graphics, (ImageItem) item, y);
-			} else if (item instanceof CustomItem) {
-				y = paintCustomItem(graphics, (CustomItem) item, y);
+			case SPACER:
+				paintSpacer(graphics, (Spacer) item, y);
+				break;
+
+			case GAUGE:
+				paintGauge(graphics, (Gauge) item, y);
+				break;
+
+			case IMAGE_ITEM:
+				paintImageItem(graphics, (ImageItem) item, y);
+				break;
+
+			case VIRTUAL_CHOICE:
+				paintVirtualChoice(graphics, item, y, selected);
+				break;
+
+			case CUSTOM_ITEM:
+				paintCustomItem(graphics, (CustomItem) item, y);
+				break;
+
+			default:
+				break;
 			}
 		}
 	}
@@ -538,7 +984,29 @@ public class FormCanvas extends Canvas implements CommandListener {
 		}
 	}
 
+	/**
+	 * Draw the label of the item from its off-screen image if it has one,
+	 * leaving the color set for the value drawn after it.
+	 * 
+	 * @param graphics
+	 *            Graphics to paint with
+	 * @param item
+	 *            Item whose label to draw
+	 * @param top
+	 *            int top pixel
+	 */
 	protected void drawLabel(Graphics graphics, Item item, int top) {
+		Image image = (Image) labelImages.get(item);
+
+		if (image == null) {
+			drawLabelString(graphics, item, top);
+		} else {
+			graphics.drawImage(image, 0, top, Graphics.TOP | Graphics.LEFT);
+			graphics.setColor(255, 255, 255);
+		}
+	}
+
+	private void drawLabelString(Graphics graphics, Item item, int top) {
 		graphics.setColor(255, 255, 255);
 		graphics.setFont(getLabelFont());
 		graphics.drawString(item.getLabel(), 0, top, Graphics.TOP
@@ -586,26 +1054,35 @@ public class FormCanvas extends Canvas implements CommandListener {
 
 	/**
 	 * Decrement the {@link #selectedIndex} until it is on a selectable
-	 * {@link Item}
+	 * {@link Item}. Before the first selectable item, first scroll up to the
+	 * start of the form, then wrap to the last selectable item.
 	 * 
-	 * @see #isSelectableItem()
+	 * @see #isSelectableItem(int)
 	 */
 	protected final void previousSelectableItem() {
-		do {
-			setSelectedIndex(getSelectedIndex() - 1);
+		int previous = findSelectableItem(getSelectedIndex() - 1, -1);
 
-			if (getSelectedIndex() < 0) {
-				setSelectedIndex(getForm().size() - 1);
+		if (previous == -1) {
+			if (scrollTop > 0) {
+				scrollTo(scrollTop - getLabelFont().getHeight());
+				return;
 			}
-		} while (!isSelectableItem());
+
+			previous = findSelectableItem(getForm().size() - 1, -1);
+		}
+
+		if (previous != -1) {
+			setSelectedIndex(previous);
+		}
 
 		resetItemState();
+		scrollToSelectedItem();
 	}
 
 	/**
-	 * If the currently selected {@link Item} is a {@link ChoiceGroup},
-	 * decrement its selected element by 1. If the current selection is the
-	 * first one, wrap to the end.
+	 * If the currently selected {@link Item} is a {@link ChoiceGroup} or a
+	 * {@link VirtualChoice}, decrement its selected element by 1. If the
+	 * current selection is the first one, wrap to the end.
 	 */
 	protected final void previousSelection() {
 		Item item = getForm().get(getSelectedIndex());
@@ -619,6 +1096,17 @@ public class FormCanvas extends Canvas implements CommandListener {
 			}
 
 			choiceGroup.setSelectedIndex(previousChoice, true);
+			notifyItemStateChanged(item);
+		} else if (item instanceof VirtualChoice) {
+			VirtualChoice choice = (VirtualChoice) item;
+			int previousChoice = choice.getSelectedIndex() - 1;
+
+			if (previousChoice < 0) {
+				previousChoice = choice.size() - 1;
+			}
+
+			choice.setSelectedIndex(previousChoice);
+			notifyItemStateChanged(item);
 		} else if (item instanceof TextField) {
 			setCursorIndex(getCursorIndex() - 1);
 
@@ -647,6 +1135,10 @@ public class FormCanvas extends Canvas implements CommandListener {
 	 */
 	protected final void setForm(PhotoToolsForm form) {
 		this.currentForm = form;
+		this.scrollTop = 0;
+
+		form.setCanvas(this);
+		layoutForm();
 	}
 
 	/**
@@ -673,6 +1165,21 @@ public class FormCanvas extends Canvas implements CommandListener {
 		this.textFont = textFont;
 	}
 
+	/**
+	 * Keep the selected {@link Item} on screen when the screen changes size.
+	 * 
+	 * @see javax.microedition.lcdui.Displayable#sizeChanged(int, int)
+	 */
+	protected void sizeChanged(int w, int h) {
+		// the platform may call this before the first form is set
+		if (getForm() != null) {
+			scrollTo(scrollTop);
+			scrollToSelectedItem();
+		}
+
+		repaint();
+	}
+
 	public final void commandAction(Command command, Displayable displayable) {
 		onCommandAction(command, displayable);
 
@@ -681,6 +1188,8 @@ public class FormCanvas extends Canvas implements CommandListener {
 		} else if (subFormOkCommand.equals(command)) {
 			switchFormBack();
 		}
+
+		repaintDirtyItems();
 	}
 
 	public void onCommandAction(Command command, Displayable displayable) {
@@ -0,0 +1,20 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.view.midlet;
+
+/**
+ * An {@link javax.microedition.lcdui.Item} whose selection can be found by
+ * typing on the keypad. {@link FormCanvas} passes the numeric keys pressed
+ * while such an item is selected to {@link #keypadSearch(char)}.
+ */
+public interface KeypadSearchable {
+	/**
+	 * Extend the search with a key and select the first match.
+	 * 
+	 * @param key
+	 *            char '0' to '9', '*', or '#'
+	 * @return boolean true if the selection changed
+	 */
+	boolean keypadSearch(char key);
+}
@@ -17,6 +17,7 @@ public class OptionsForm extends PhotoToolsForm {
 	private ChoiceGroup apertureScale;
 	private CameraChoiceGroup cameras;
 	private ChoiceGroup units;
+	private ChoiceGroup arithmetic;
 
 	/**
 	 * @param title
@@ -38,10 +39,14 @@ public class OptionsForm extends PhotoToolsForm {
 				.getApertureScaleSelectedIndex(), true);
 		append(apertureScale);
 
-		this.cameras = new CameraChoiceGroup("Camera: ", ChoiceGroup.POPUP,
-				Camera.getCameras(), null);
-		cameras.setSelectedIndex(
-				PhotoToolsRecordStore.getCameraSelectedIndex(), true);
+		this.cameras = new CameraChoiceGroup("Camera: ");
+		int cameraSelectedIndex = PhotoToolsRecordStore
+				.getCameraSelectedIndex();
+
+		if (cameraSelectedIndex < cameras.size()) {
+			cameras.setSelectedIndex(cameraSelectedIndex);
+		}
+
 		append(cameras);
 
 		this.units = new ChoiceGroup("Units: ", ChoiceGroup.POPUP,
@@ -49,6 +54,12 @@ public class OptionsForm extends PhotoToolsForm {
 		units.setSelectedIndex(PhotoToolsRecordStore.getUnitSelectedIndex(),
 				true);
 		append(units);
+
+		this.arithmetic = new ChoiceGroup("Arithmetic: ", ChoiceGroup.POPUP,
+				new String[] { "Floating", "Fixed" }, null);
+		arithmetic.setSelectedIndex(PhotoToolsRecordStore
+				.getArithmeticSelectedIndex(), true);
+		append(arithmetic);
 	}
 
 	/**
@@ -80,7 +91,7 @@ public class OptionsForm extends PhotoToolsForm {
 	/**
 	 * Get the selected Camera
 	 * 
-	 * @return Camera
+	 * @return Camera, or null if it could not be read
 	 */
 	public Camera getSelectedCamera() {
 		return cameras.getSelectedCamera();
@@ -94,11 +105,21 @@ public class OptionsForm extends PhotoToolsForm {
 		return units.getSelectedIndex() == 0;
 	}
 
+	/**
+	 * @return true to calculate with fixed point instead of floating point
+	 *         arithmetic, which is faster on handsets without an FPU
+	 */
+	public boolean isFixedPoint() {
+		return arithmetic.getSelectedIndex() == 1;
+	}
+
 	public void onSwitchAway() {
 		PhotoToolsRecordStore.setApertureScaleSelectedIndex(apertureScale
 				.getSelectedIndex());
 		PhotoToolsRecordStore.setCameraScaleSelectedIndex(cameras
 				.getSelectedIndex());
 		PhotoToolsRecordStore.setUnitSelectedIndex(units.getSelectedIndex());
+		PhotoToolsRecordStore.setArithmeticSelectedIndex(arithmetic
+				.getSelectedIndex());
 	}
 }
\ No newline at end of file
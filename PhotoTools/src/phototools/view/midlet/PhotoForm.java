@@ -4,18 +4,24 @@
 package phototools.view.midlet;
 
 import javax.microedition.lcdui.ChoiceGroup;
+import javax.microedition.lcdui.Item;
 import javax.microedition.lcdui.Spacer;
 import javax.microedition.lcdui.StringItem;
 import javax.microedition.lcdui.TextField;
 
 import phototools.Aperture;
 import phototools.Camera;
+import phototools.DepthOfFieldResult;
 import phototools.Photo;
 import phototools.utility.DoubleFormatter;
 import phototools.utility.PhotoToolsRecordStore;
 
 /**
- *  
+ * Input the focal length, aperture, and focus distance and display the depth
+ * of field, hyperfocal distance, field of view, and angle of view.
+ * 
+ * The results are only recalculated when one of the inputs changes; painting
+ * the form just shows the text calculated last.
  */
 public class PhotoForm extends PhotoToolsForm {
 	private static final String NEAR_LIMIT_LABEL = "    Near Limit: ";
@@ -28,6 +34,32 @@ public class PhotoForm extends PhotoToolsForm {
 
 	private static final int PRECISION = 2;
 
+	/*
+	 * Slots in shownValues for each value shown
+	 */
+	private static final int HALF_HYPERFOCAL_DISTANCE = 0;
+	private static final int HYPERFOCAL_DISTANCE = 1;
+	private static final int ANGLE_OF_VIEW_HORIZONTAL = 2;
+	private static final int ANGLE_OF_VIEW_VERTICAL = 3;
+	private static final int DEPTH_OF_FIELD_FAR_LIMIT = 4;
+	private static final int DEPTH_OF_FIELD_NEAR_LIMIT = 5;
+	private static final int DEPTH_OF_FIELD_BEFORE = 6;
+	private static final int DEPTH_OF_FIELD_BEHIND = 7;
+	private static final int FIELD_OF_VIEW_HORIZONTAL = 8;
+	private static final int FIELD_OF_VIEW_VERTICAL = 9;
+	private static final int SHOWN_VALUES = 10;
+
+	/*
+	 * Markers beyond DoubleFormatter.MAXIMUM_SCALED, for texts which are not
+	 * numbers
+	 */
+
+	/** Shown value of an item whose text is empty */
+	private static final long EMPTY = Long.MAX_VALUE;
+
+	/** Shown value of an infinite depth of field */
+	private static final long INFINITE = Long.MAX_VALUE - 1;
+
 	private TextField focalLength;
 	private ApertureChoiceGroup aperture;
 	private TextField focusDistance;
@@ -44,11 +76,30 @@ public class PhotoForm extends PhotoToolsForm {
 	private StringItem angleOfView;
 
 	private Photo photo;
+	private DepthOfFieldResult result;
+
+	/** Reused to build the text of every result */
+	private StringBuffer text;
+
+	/**
+	 * Each value as last shown, scaled by {@link DoubleFormatter#scale(double,
+	 * int)}, so an item's text is only formatted and set when it would change
+	 */
+	private long[] shownValues;
+	private int updatesApplied;
+	private int updatesSkipped;
+
+	/**
+	 * true when an input has changed since the last {@link #recalculate()}
+	 */
+	private boolean dirty;
+	private int calculationCount;
 
 	/**
 	 * 
 	 */
-	public PhotoForm(Aperture aperture, Camera camera, boolean metric) {
+	public PhotoForm(Aperture aperture, Camera camera, boolean metric,
+			boolean fixedPoint) {
 		super("Photo Tools Calculator");
 
 		// temporarily store the saved/default aperture selected index before it
@@ -56,20 +107,30 @@ public class PhotoForm extends PhotoToolsForm {
 		int apertureSelectedIndex = PhotoToolsRecordStore
 				.getApertureSelectedIndex();
 
-		setAperture(aperture);
+		this.aperture.resetAperture(aperture, null);
 		setCamera(camera);
-		setMetric(metric);
+		photo.setMetric(metric);
+		photo.setFixedPoint(fixedPoint);
 
-		// reset the saved/default aperture as after calling setAperture its
+		// reset the saved/default aperture as after calling resetAperture its
 		// selected index is reset to zero
 		this.aperture.setSelectedIndex(apertureSelectedIndex, true);
+
+		invalidate();
+		repaint();
 	}
 
 	/**
 	 * Add all of the form elements.
 	 */
 	protected void initialize() {
+		this.dirty = true;
+
 		this.photo = new Photo();
+		this.result = new DepthOfFieldResult();
+		this.text = new StringBuffer();
+		this.shownValues = new long[SHOWN_VALUES];
+		forgetShownValues();
 		photo.setCamera(new Camera());
 
 		this.focalLength = new TextField("Focal Length: ", String
@@ -136,91 +197,329 @@ public class PhotoForm extends PhotoToolsForm {
 		}
 	}
 
+	/**
+	 * Recalculate the results if any of the inputs have changed since they
+	 * were last calculated.
+	 */
 	protected void repaint() {
-		recalculate();
+		if (dirty) {
+			recalculate();
+		}
+	}
+
+	/**
+	 * Mark the results out of date so the next {@link #repaint()} recalculates
+	 * them.
+	 */
+	private void invalidate() {
+		dirty = true;
+	}
+
+	/**
+	 * Recalculate when the focal length, aperture, or focus distance is
+	 * changed.
+	 * 
+	 * @see phototools.view.midlet.PhotoToolsForm#onItemStateChanged(javax.microedition.lcdui.Item)
+	 */
+	protected void onItemStateChanged(Item item) {
+		if (item == focalLength || item == aperture || item == focusDistance) {
+			invalidate();
+			repaint();
+		}
+	}
+
+	/**
+	 * Used by tests.
+	 * 
+	 * @return the number of times the results have been calculated
+	 */
+	int getCalculationCount() {
+		return calculationCount;
 	}
 
+	/**
+	 * @return the number of times a result item's text was set
+	 */
+	public int getUpdatesApplied() {
+		return updatesApplied;
+	}
+
+	/**
+	 * @return the number of times setting a result item's text was skipped
+	 *         as it would not have changed
+	 */
+	public int getUpdatesSkipped() {
+		return updatesSkipped;
+	}
+
+	/*
+	 * The setters below only mark the results out of date, so applying
+	 * several options at once costs a single recalculation, made by the next
+	 * repaint().
+	 */
+
+	/**
+	 * @param camera
+	 *            Camera to calculate for, or null to keep the current one when
+	 *            the selected camera could not be read
+	 */
 	public void setCamera(Camera camera) {
-		photo.setCamera(camera);
-		repaint();
+		if (camera != null && !camera.equals(photo.getCamera())) {
+			photo.setCamera(camera);
+			invalidate();
+		}
 	}
-	
-	public void setAperture(Aperture aperture) {
-		this.aperture.resetAperture(aperture, null);
 
-		repaint();
+	public void setAperture(Aperture aperture) {
+		if (!aperture.equals(this.aperture.getAperture())) {
+			this.aperture.resetAperture(aperture, null);
+			invalidate();
+		}
 	}
-	
+
 	public void setMetric(boolean metric) {
-		photo.setMetric(metric);
+		if (photo.isMetric() != metric) {
+			photo.setMetric(metric);
+
+			// the unit is part of every text
+			forgetShownValues();
+			invalidate();
+		}
+	}
+
+	public void setFixedPoint(boolean fixedPoint) {
+		if (photo.isFixedPoint() != fixedPoint) {
+			photo.setFixedPoint(fixedPoint);
+			invalidate();
+		}
+	}
+
+	/**
+	 * Recalculate if the options were changed while another form was shown.
+	 * 
+	 * @see phototools.view.midlet.PhotoToolsForm#onSwitchTo()
+	 */
+	public void onSwitchTo() {
+		repaint();
 	}
 
 	/**
 	 * Calculate the depth of field and hyperfocal distance.
 	 */
 	private void recalculate() {
+		dirty = false;
+		calculationCount++;
 
-		try {
-			photo.setAperture(aperture.getSelectedAperture());
-			PhotoToolsRecordStore.setApertureSelectedIndex(aperture
-					.getSelectedIndex());
+		boolean focalLengthValid = true;
+		boolean focusDistanceValid = true;
 
+		photo.setAperture(aperture.getSelectedAperture());
+		PhotoToolsRecordStore.setApertureSelectedIndex(aperture
+				.getSelectedIndex());
+
+		try {
 			photo.setFocalLength(Integer.parseInt(focalLength.getString()));
 			PhotoToolsRecordStore.setFocalLength(photo.getFocalLength());
-
-			halfHyperfocalDistance.setText(DoubleFormatter.round(photo
-					.calculateHalfHyperfocalDistance(), PRECISION)
-					+ " " + feetOrMeters());
-			hyperfocalDistance.setText(DoubleFormatter.round(photo
-					.calculateHyperfocalDistance(), PRECISION)
-					+ " " + feetOrMeters());
-
-			angleOfView.setText(DoubleFormatter.round(photo
-					.calculateAngleOfViewHorizontal(), PRECISION)
-					+ "\u00B0 x "
-					+ DoubleFormatter.round(photo
-							.calculateAngleOfViewVertical(), PRECISION)
-					+ "\u00B0");
 		} catch (NumberFormatException e) {
-			halfHyperfocalDistance.setText("");
-			hyperfocalDistance.setText("");
-			angleOfView.setText("");
+			focalLengthValid = false;
 		}
 
 		try {
 			photo.setFocusDistance(Double
 					.parseDouble(focusDistance.getString()));
 			PhotoToolsRecordStore.setFocusDistance(photo.getFocusDistance());
-
-			depthOfFieldFarLimit.setText(DoubleFormatter.roundDepthOfField(
-					photo.calculateDepthOfFieldFarLimit(), PRECISION)
-					+ " " + feetOrMeters());
-			depthOfFieldNearLimit.setText(DoubleFormatter.round(photo
-					.calculateDepthOfFieldNearLimit(), PRECISION)
-					+ " " + feetOrMeters());
-			depthOfFieldBefore.setText(DoubleFormatter.round(photo
-					.calculateDepthOfFieldBefore(), PRECISION)
-					+ " " + feetOrMeters());
-			depthOfFieldBehind.setText(DoubleFormatter.roundDepthOfField(photo
-					.calculateDepthOfFieldBehind(), PRECISION)
-					+ " " + feetOrMeters());
-
-			fieldOfView.setText(DoubleFormatter.round(photo
-					.calculateFieldOfViewHorizontal(), PRECISION)
-					+ " "
-					+ feetOrMeters()
-					+ " x "
-					+ DoubleFormatter.round(photo
-							.calculateFieldOfViewVertical(), PRECISION)
-					+ " "
-					+ feetOrMeters());
 		} catch (NumberFormatException e) {
-			depthOfFieldFarLimit.setText("");
-			depthOfFieldNearLimit.setText("");
-			depthOfFieldBefore.setText("");
-			depthOfFieldBehind.setText("");
+			focusDistanceValid = false;
+		}
+
+		photo.calculateAll(result);
+
+		if (focalLengthValid) {
+			showDistance(halfHyperfocalDistance, HALF_HYPERFOCAL_DISTANCE,
+					result.getHalfHyperfocalDistance());
+			showDistance(hyperfocalDistance, HYPERFOCAL_DISTANCE, result
+					.getHyperfocalDistance());
+			showAngleOfView(result.getAngleOfViewHorizontal(), result
+					.getAngleOfViewVertical());
+		} else {
+			showEmpty(halfHyperfocalDistance, HALF_HYPERFOCAL_DISTANCE);
+			showEmpty(hyperfocalDistance, HYPERFOCAL_DISTANCE);
+			showEmpty(angleOfView, ANGLE_OF_VIEW_HORIZONTAL);
+		}
+
+		if (focusDistanceValid) {
+			showDepthOfField(depthOfFieldFarLimit, DEPTH_OF_FIELD_FAR_LIMIT,
+					result.getDepthOfFieldFarLimit());
+			showDistance(depthOfFieldNearLimit, DEPTH_OF_FIELD_NEAR_LIMIT,
+					result.getDepthOfFieldNearLimit());
+			showDistance(depthOfFieldBefore, DEPTH_OF_FIELD_BEFORE, result
+					.getDepthOfFieldBefore());
+			showDepthOfField(depthOfFieldBehind, DEPTH_OF_FIELD_BEHIND, result
+					.getDepthOfFieldBehind());
+			showFieldOfView(result.getFieldOfViewHorizontal(), result
+					.getFieldOfViewVertical());
+		} else {
+			showEmpty(depthOfFieldFarLimit, DEPTH_OF_FIELD_FAR_LIMIT);
+			showEmpty(depthOfFieldNearLimit, DEPTH_OF_FIELD_NEAR_LIMIT);
+			showEmpty(depthOfFieldBefore, DEPTH_OF_FIELD_BEFORE);
+			showEmpty(depthOfFieldBehind, DEPTH_OF_FIELD_BEHIND);
+			showEmpty(fieldOfView, FIELD_OF_VIEW_HORIZONTAL);
+		}
+	}
+
+	/**
+	 * Make every item's text be set the next time it is shown.
+	 */
+	private void forgetShownValues() {
+		for (int i = 0; i < shownValues.length; i++) {
+			shownValues[i] = DoubleFormatter.NOT_SCALABLE;
+		}
+	}
+
+	/**
+	 * Remember the value shown in a slot.
+	 * 
+	 * @param slot
+	 *            int index into shownValues
+	 * @param value
+	 *            long scaled value, or a marker
+	 * @return boolean true if it differs from the value shown before, or
+	 *         cannot be compared
+	 */
+	private boolean remember(int slot, long value) {
+		boolean changed = value != shownValues[slot]
+				|| value == DoubleFormatter.NOT_SCALABLE;
+
+		shownValues[slot] = value;
+
+		return changed;
+	}
+
+	/**
+	 * Count an update of an item's text as applied or skipped.
+	 * 
+	 * @return boolean changed
+	 */
+	private boolean count(boolean changed) {
+		if (changed) {
+			updatesApplied++;
+		} else {
+			updatesSkipped++;
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Set the item's text and have it repainted.
+	 */
+	private void setText(StringItem item, String text) {
+		item.setText(text);
+		itemUpdated(item);
+	}
 
-			fieldOfView.setText("");
+	private void showDistance(StringItem item, int slot, double distance) {
+		if (count(remember(slot, DoubleFormatter.scale(distance, PRECISION)))) {
+			setText(item, formatDistance(distance));
 		}
 	}
-}
+
+	private void showDepthOfField(StringItem item, int slot, double distance) {
+		long value = distance < 0 ? INFINITE : DoubleFormatter.scale(
+				distance, PRECISION);
+
+		if (count(remember(slot, value))) {
+			setText(item, formatDepthOfField(distance));
+		}
+	}
+
+	private void showAngleOfView(double horizontal, double vertical) {
+		// remember both, even when the first has changed
+		boolean changed = remember(ANGLE_OF_VIEW_HORIZONTAL, DoubleFormatter
+				.scale(horizontal, PRECISION))
+				| remember(ANGLE_OF_VIEW_VERTICAL, DoubleFormatter.scale(
+						vertical, PRECISION));
+
+		if (count(changed)) {
+			text.setLength(0);
+			appendAngle(horizontal).append(" x ");
+			appendAngle(vertical);
+			setText(angleOfView, text.toString());
+		}
+	}
+
+	private void showFieldOfView(double horizontal, double vertical) {
+		// remember both, even when the first has changed
+		boolean changed = remember(FIELD_OF_VIEW_HORIZONTAL, DoubleFormatter
+				.scale(horizontal, PRECISION))
+				| remember(FIELD_OF_VIEW_VERTICAL, DoubleFormatter.scale(
+						vertical, PRECISION));
+
+		if (count(changed)) {
+			text.setLength(0);
+			appendDistance(horizontal).append(" x ");
+			appendDistance(vertical);
+			setText(fieldOfView, text.toString());
+		}
+	}
+
+	/**
+	 * @param item
+	 *            StringItem to empty
+	 * @param slot
+	 *            int index into shownValues of its first value
+	 */
+	private void showEmpty(StringItem item, int slot) {
+		if (count(remember(slot, EMPTY))) {
+			setText(item, "");
+		}
+	}
+
+	/**
+	 * @param distance
+	 *            double distance in feet or meters
+	 * @return String distance and unit
+	 */
+	private String formatDistance(double distance) {
+		text.setLength(0);
+
+		return appendDistance(distance).toString();
+	}
+
+	/**
+	 * @param distance
+	 *            double distance in feet or meters, negative if infinite
+	 * @return String distance and unit, or infinity
+	 */
+	private String formatDepthOfField(double distance) {
+		text.setLength(0);
+		DoubleFormatter.appendDepthOfField(text, distance, PRECISION).append(
+				' ').append(feetOrMeters());
+
+		return text.toString();
+	}
+
+	/**
+	 * Append the distance and unit to {@link #text}.
+	 * 
+	 * @param distance
+	 *            double distance in feet or meters
+	 * @return StringBuffer {@link #text}
+	 */
+	private StringBuffer appendDistance(double distance) {
+		return DoubleFormatter.appendRounded(text, distance, PRECISION)
+				.append(' ').append(feetOrMeters());
+	}
+
+	/**
+	 * Append the angle and degree sign to {@link #text}.
+	 * 
+	 * @param angle
+	 *            double angle in degrees
+	 * @return StringBuffer {@link #text}
+	 */
+	private StringBuffer appendAngle(double angle) {
+		return DoubleFormatter.appendRounded(text, angle, PRECISION).append(
+				'\u00B0');
+	}
+}
\ No newline at end of file
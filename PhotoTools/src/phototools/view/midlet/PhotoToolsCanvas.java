@@ -6,7 +6,6 @@ package phototools.view.midlet;
 import javax.microedition.lcdui.Command;
 import javax.microedition.lcdui.Displayable;
 import javax.microedition.lcdui.Form;
-import javax.microedition.lcdui.Graphics;
 import javax.microedition.midlet.MIDlet;
 
 /**
@@ -32,23 +31,14 @@ public class PhotoToolsCanvas extends FormCanvas {
 		this.optionsForm = new OptionsForm();
 
 		this.photoForm = new PhotoForm(optionsForm.getSelectedAperture(),
-				optionsForm.getSelectedCamera(), optionsForm.isMetric());
-		photoForm.repaint();
+				optionsForm.getSelectedCamera(), optionsForm.isMetric(),
+				optionsForm.isFixedPoint());
 
 		addCommands();
 
 		setForm(photoForm);
 	}
 
-	/**
-	 * Recalculate the numbers each time the screen is painted.
-	 * 
-	 * @see phototools.view.midlet.FormCanvas#paintForm(javax.microedition.lcdui.Graphics)
-	 */
-	protected void onPaintForm(Graphics graphics) {
-		photoForm.repaint();
-	}
-
 	/**
 	 * 
 	 * @see phototools.view.midlet.FormCanvas#onCommandAction(javax.microedition.lcdui.Command,
@@ -71,6 +61,7 @@ public class PhotoToolsCanvas extends FormCanvas {
 			photoForm.setCamera(optionsForm.getSelectedCamera());
 			photoForm.setAperture(optionsForm.getSelectedAperture());
 			photoForm.setMetric(optionsForm.isMetric());
+			photoForm.setFixedPoint(optionsForm.isFixedPoint());
 		}
 	}
 
@@ -8,12 +8,17 @@ import javax.microedition.lcdui.CommandListener;
 import javax.microedition.lcdui.Displayable;
 import javax.microedition.lcdui.Form;
 import javax.microedition.lcdui.Item;
+import javax.microedition.lcdui.ItemStateListener;
 
 /**
  * @author tstavenger
  * 
  */
-public abstract class PhotoToolsForm extends Form implements CommandListener {
+public abstract class PhotoToolsForm extends Form implements CommandListener,
+		ItemStateListener {
+	/** Canvas showing this form, if any */
+	private FormCanvas canvas;
+
 	/**
 	 * @param arg0
 	 * @param arg1
@@ -22,6 +27,7 @@ public abstract class PhotoToolsForm extends Form implements CommandListener {
 		super(arg0, arg1);
 
 		initialize();
+		setItemStateListener(this);
 		addCommands();
 
 		repaint();
@@ -34,6 +40,7 @@ public abstract class PhotoToolsForm extends Form implements CommandListener {
 		super(title);
 
 		initialize();
+		setItemStateListener(this);
 		addCommands();
 
 		repaint();
@@ -41,6 +48,28 @@ public abstract class PhotoToolsForm extends Form implements CommandListener {
 
 	protected abstract void initialize();
 
+	/**
+	 * @param canvas
+	 *            FormCanvas showing this form
+	 */
+	final void setCanvas(FormCanvas canvas) {
+		this.canvas = canvas;
+	}
+
+	/**
+	 * Tell the {@link FormCanvas} showing this form that the given item has
+	 * changed and needs repainting. Sub classes call this after changing an
+	 * item other than through the canvas, such as setting a result's text.
+	 * 
+	 * @param item
+	 *            Item which changed
+	 */
+	protected final void itemUpdated(Item item) {
+		if (canvas != null) {
+			canvas.itemUpdated(this, item);
+		}
+	}
+
 	protected void repaint() {
 
 	}
@@ -75,4 +104,18 @@ public abstract class PhotoToolsForm extends Form implements CommandListener {
 	protected void onCommandAction(Command command, Displayable displayable) {
 
 	}
+
+	/**
+	 * Called when the value of one of the {@link Item} elements has been
+	 * changed, either natively or through a {@link FormCanvas}.
+	 * 
+	 * @see javax.microedition.lcdui.ItemStateListener#itemStateChanged(javax.microedition.lcdui.Item)
+	 */
+	public final void itemStateChanged(Item item) {
+		onItemStateChanged(item);
+	}
+
+	protected void onItemStateChanged(Item item) {
+
+	}
 }
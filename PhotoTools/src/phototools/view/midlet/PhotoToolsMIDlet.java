@@ -7,6 +7,8 @@ import javax.microedition.lcdui.Display;
 import javax.microedition.midlet.MIDlet;
 import javax.microedition.midlet.MIDletStateChangeException;
 
+import phototools.utility.PhotoToolsRecordStore;
+
 /**
  * @author tstavenger
  * 
@@ -24,8 +26,7 @@ public class PhotoToolsMIDlet extends MIDlet {
 	 * @see javax.microedition.midlet.MIDlet#destroyApp(boolean)
 	 */
 	protected void destroyApp(boolean arg0) throws MIDletStateChangeException {
-		// TODO Auto-generated method stub
-
+		PhotoToolsRecordStore.close();
 	}
 
 	/*
@@ -34,8 +35,7 @@ public class PhotoToolsMIDlet extends MIDlet {
 	 * @see javax.microedition.midlet.MIDlet#pauseApp()
 	 */
 	protected void pauseApp() {
-		// TODO Auto-generated method stub
-
+		PhotoToolsRecordStore.flush();
 	}
 
 	/*
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.view.midlet;
+
+/**
+ * A single choice {@link javax.microedition.lcdui.Item} whose elements are
+ * not held in memory, but fetched by index only when they are shown.
+ * {@link FormCanvas} paints it like a popup
+ * {@link javax.microedition.lcdui.ChoiceGroup} and steps through its elements
+ * with the left and right keys.
+ */
+public interface VirtualChoice {
+	/**
+	 * @return int number of elements
+	 */
+	int size();
+
+	/**
+	 * @return int index of the selected element
+	 */
+	int getSelectedIndex();
+
+	/**
+	 * @param elementNum
+	 *            int index of the element to select
+	 */
+	void setSelectedIndex(int elementNum);
+
+	/**
+	 * @param elementNum
+	 *            int index of the element
+	 * @return String text of the element
+	 */
+	String getString(int elementNum);
+}
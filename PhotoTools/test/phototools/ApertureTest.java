@@ -0,0 +1,51 @@
+/**
+ * 
+ */
+package phototools;
+
+import junit.framework.TestCase;
+
+/**
+ * @author tstavenger
+ * 
+ */
+public class ApertureTest extends TestCase {
+	private Aperture aperture;
+
+	/**
+	 * Instantiate the Aperture object to test
+	 * 
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	protected void setUp() throws Exception {
+		aperture = new Aperture();
+	}
+
+	public void testCalculateAperture() {
+		aperture.setFullStop();
+
+		assertEquals(1., aperture.calculateAperture(0), 0);
+		assertEquals(5.656854249492381, aperture.calculateAperture(5), 1e-14);
+		assertEquals(32., aperture.calculateAperture(10), 1e-13);
+
+		aperture.setThirdStop();
+
+		assertEquals(31, aperture.getStepCount());
+		assertEquals(6.3496042078727974, aperture.calculateAperture(16), 1e-14);
+	}
+
+	public void testNearestStep() {
+		aperture.setFullStop();
+
+		assertEquals(0, aperture.nearestStep(0.5));
+		assertEquals(5, aperture.nearestStep(5.6));
+		assertEquals(5, aperture.nearestStep(6.6));
+		assertEquals(6, aperture.nearestStep(6.8));
+		assertEquals(10, aperture.nearestStep(45));
+
+		aperture.setHalfStop();
+
+		assertEquals(10, aperture.nearestStep(5.6));
+		assertEquals(11, aperture.nearestStep(6.7));
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * 
+ */
+package phototools;
+
+import junit.framework.TestCase;
+
+/**
+ * @author tstavenger
+ * 
+ */
+public class BatchCalculatorTest extends TestCase {
+	private static final int[] FOCAL_LENGTHS = { 8, 24, 50, 50, 200, 800 };
+	private static final double[] APERTURES = { 2.8, 5.6, 5.6, 22, 4, 11 };
+	private static final double[] FOCUS_DISTANCES = { 0.3, 2, 10, 100, 5,
+			1000 };
+
+	public void testMatchesPhoto() {
+		Camera camera = new Camera();
+		int count = FOCAL_LENGTHS.length;
+		double[] focusDistances = new double[count];
+		double[] hyperfocalDistances = new double[count];
+		double[] nearLimits = new double[count];
+		double[] farLimits = new double[count];
+		double[] widths = new double[count];
+		double[] heights = new double[count];
+
+		for (int i = 0; i < count; i++) {
+			focusDistances[i] = FOCUS_DISTANCES[i] * 1000;
+		}
+
+		BatchCalculator.calculate(camera, FOCAL_LENGTHS, APERTURES,
+				focusDistances, 0, count, hyperfocalDistances, nearLimits,
+				farLimits, widths, heights);
+
+		for (int i = 0; i < count; i++) {
+			Photo photo = new Photo(camera, FOCAL_LENGTHS[i], APERTURES[i],
+					FOCUS_DISTANCES[i], true);
+
+			assertEquals(photo.calculateHyperfocalDistance(),
+					hyperfocalDistances[i] / 1000, 0);
+			assertEquals(photo.calculateDepthOfFieldNearLimit(),
+					nearLimits[i] / 1000, 0);
+			assertEquals(photo.calculateDepthOfFieldFarLimit(),
+					farLimits[i] / 1000, 0);
+			assertEquals(photo.calculateFieldOfViewHorizontal(),
+					widths[i] / 1000, 0);
+			assertEquals(photo.calculateFieldOfViewVertical(),
+					heights[i] / 1000, 0);
+		}
+
+		// beyond the hyperfocal distance the far limit is infinite
+		assertTrue(farLimits[3] < 0);
+	}
+
+	public void testRange() {
+		double[] hyperfocalDistances = new double[4];
+		double[] nearLimits = new double[4];
+		double[] farLimits = new double[4];
+
+		BatchCalculator.calculate(new Camera(), new int[] { 0, 50, 50, 0 },
+				new double[] { 0, 8, 8, 0 },
+				new double[] { 0, 3000, 4000, 0 }, 1, 2,
+				hyperfocalDistances, nearLimits, farLimits, null, null);
+
+		assertEquals(0, hyperfocalDistances[0], 0);
+		assertEquals(0, hyperfocalDistances[3], 0);
+		assertEquals(hyperfocalDistances[1], hyperfocalDistances[2], 0);
+		assertTrue(nearLimits[1] < 3000 && farLimits[1] > 3000);
+		assertTrue(nearLimits[2] > nearLimits[1]);
+	}
+}
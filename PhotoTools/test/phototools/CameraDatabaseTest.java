@@ -0,0 +1,177 @@
+/**
+ * 
+ */
+package phototools;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * @author tstavenger
+ * 
+ */
+public class CameraDatabaseTest extends TestCase {
+	/** More than two pages of {@link CameraRegistry} model names */
+	private static final int COUNT = 40;
+
+	private CameraDatabase xmlDatabase;
+	private CameraDatabase binaryDatabase;
+
+	/**
+	 * Build the same cameras as an XML and a binary database
+	 * 
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	protected void setUp() throws Exception {
+		StringBuffer xml = new StringBuffer("<cameras>");
+		ByteArrayOutputStream pool = new ByteArrayOutputStream();
+		DataOutputStream poolOut = new DataOutputStream(pool);
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(binary);
+
+		out.writeInt(BinaryCameraDatabase.MAGIC);
+		out.writeByte(BinaryCameraDatabase.VERSION);
+		out.writeInt(COUNT);
+
+		for (int i = 0; i < COUNT; i++) {
+			xml.append("<camera><name>").append(model(i)).append(
+					"</name><circleofconfusion>").append(
+					circleOfConfusion(i)).append(
+					"</circleofconfusion><frame><width>").append(width(i))
+					.append("</width><height>").append(height(i)).append(
+							"</height></frame></camera>");
+
+			out.writeInt(poolOut.size());
+			out.writeDouble(circleOfConfusion(i));
+			out.writeDouble(width(i));
+			out.writeDouble(height(i));
+			poolOut.writeUTF(model(i));
+		}
+
+		xml.append("</cameras>");
+		out.write(pool.toByteArray());
+
+		xmlDatabase = new TestXmlCameraDatabase(xml.toString().getBytes());
+		binaryDatabase = new TestBinaryCameraDatabase(binary.toByteArray());
+	}
+
+	public void testXmlPaging() throws IOException {
+		assertPaging(xmlDatabase);
+	}
+
+	public void testBinaryPaging() throws IOException {
+		assertPaging(binaryDatabase);
+	}
+
+	public void testXmlReadCamera() throws IOException {
+		assertReadCamera(xmlDatabase);
+	}
+
+	public void testBinaryReadCamera() throws IOException {
+		assertReadCamera(binaryDatabase);
+	}
+
+	private static void assertPaging(CameraDatabase database)
+			throws IOException {
+		assertEquals(COUNT, database.readCount());
+
+		// start, middle and end of the database
+		assertModels(database.readModels(0, 16), 0, 16);
+		assertModels(database.readModels(16, 16), 16, 16);
+		assertModels(database.readModels(32, 16), 32, COUNT - 32);
+		assertModels(database.readModels(COUNT - 1, 1), COUNT - 1, 1);
+		assertModels(database.readModels(COUNT, 16), COUNT, 0);
+		assertModels(database.readModels(), 0, COUNT);
+	}
+
+	private static void assertModels(String[] models, int start, int length) {
+		assertEquals(length, models.length);
+
+		for (int i = 0; i < length; i++) {
+			assertEquals(model(start + i), models[i]);
+		}
+	}
+
+	private static void assertReadCamera(CameraDatabase database)
+			throws IOException {
+		assertCamera(0, database.readCamera(0));
+		assertCamera(17, database.readCamera(17));
+		assertCamera(COUNT - 1, database.readCamera(COUNT - 1));
+
+		try {
+			database.readCamera(COUNT);
+			fail("no camera " + COUNT);
+		} catch (IOException e) {
+			// expected
+		}
+
+		Camera[] cameras = database.readCameras();
+
+		assertEquals(COUNT, cameras.length);
+
+		for (int i = 0; i < COUNT; i++) {
+			assertCamera(i, cameras[i]);
+		}
+	}
+
+	private static void assertCamera(int index, Camera camera) {
+		assertEquals(model(index), camera.getModel());
+		assertEquals(circleOfConfusion(index), camera.getCircleOfConfusion(),
+				0);
+		assertEquals(width(index), camera.getFrameWidth(), 0);
+		assertEquals(height(index), camera.getFrameHeight(), 0);
+	}
+
+	private static String model(int index) {
+		return "Camera " + index;
+	}
+
+	private static double circleOfConfusion(int index) {
+		return 0.01 + index / 1000D;
+	}
+
+	private static double width(int index) {
+		return 20 + index;
+	}
+
+	private static double height(int index) {
+		return 10 + index / 2D;
+	}
+
+	/**
+	 * Read from memory instead of a resource
+	 */
+	private static class TestXmlCameraDatabase extends XmlCameraDatabase {
+		private final byte[] bytes;
+
+		TestXmlCameraDatabase(byte[] bytes) {
+			super("test.xml");
+			this.bytes = bytes;
+		}
+
+		protected InputStream open() {
+			return new ByteArrayInputStream(bytes);
+		}
+	}
+
+	/**
+	 * Read from memory instead of a resource
+	 */
+	private static class TestBinaryCameraDatabase extends BinaryCameraDatabase {
+		private final byte[] bytes;
+
+		TestBinaryCameraDatabase(byte[] bytes) {
+			super("test.bin");
+			this.bytes = bytes;
+		}
+
+		protected InputStream open() {
+			return new ByteArrayInputStream(bytes);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * 
+ */
+package phototools;
+
+import junit.framework.TestCase;
+
+/**
+ * @author tstavenger
+ * 
+ */
+public class CameraRegistryTest extends TestCase {
+	public void testModels() {
+		int size = CameraRegistry.size();
+
+		assertTrue(size > 0);
+
+		// the last camera first, so its page is read before the first one
+		for (int i = size - 1; i >= 0; i--) {
+			String model = CameraRegistry.getModel(i);
+
+			assertNotNull(model);
+			assertEquals(model, CameraRegistry.getCamera(i).getModel());
+			assertEquals(model, CameraRegistry.getModel(i));
+		}
+	}
+
+	public void testIndexOf() {
+		for (int i = 0; i < CameraRegistry.size(); i++) {
+			String model = CameraRegistry.getModel(i);
+
+			assertEquals(i, CameraRegistry.indexOf(model));
+			assertSame(CameraRegistry.getCamera(i), CameraRegistry
+					.getCamera(model));
+		}
+
+		assertEquals(-1, CameraRegistry.indexOf("no such camera"));
+		assertNull(CameraRegistry.getCamera("no such camera"));
+	}
+
+	public void testGetCameras() {
+		Camera[] cameras = CameraRegistry.getCameras();
+
+		assertEquals(CameraRegistry.size(), cameras.length);
+
+		for (int i = 0; i < cameras.length; i++) {
+			assertSame(CameraRegistry.getCamera(i), cameras[i]);
+		}
+	}
+
+	public void testFindByKeypad() {
+		int index = CameraRegistry.indexOf("Full Frame");
+
+		assertTrue(index >= 0);
+		assertEquals(index, CameraRegistry.findByKeypad("3855"));
+		assertEquals(-1, CameraRegistry.findByKeypad("99999999"));
+	}
+}
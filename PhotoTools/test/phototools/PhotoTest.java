@@ -40,4 +40,96 @@ public class PhotoTest extends TestCase {
 		
 		assertEquals(77.25, hyperfocalDistance, .1);
 	}
+
+	public void testCachedValuesFollowSetters() {
+		double hyperfocalDistance = photo.calculateHyperfocalDistance();
+		double near = photo.calculateDepthOfFieldNearLimit();
+		double angleOfView = photo.calculateAngleOfViewHorizontal();
+
+		photo.setFocusDistance(20);
+		assertEquals(hyperfocalDistance, photo.calculateHyperfocalDistance(),
+				1e-9);
+		assertTrue(photo.calculateDepthOfFieldNearLimit() > near);
+
+		photo.setFocalLength(100);
+		assertTrue(photo.calculateHyperfocalDistance() > hyperfocalDistance);
+		assertTrue(photo.calculateAngleOfViewHorizontal() < angleOfView);
+
+		photo.setMetric(true);
+		assertEquals(new Photo(new Camera(), 100, 5.6, 20, true)
+				.calculateDepthOfFieldNearLimit(), photo
+				.calculateDepthOfFieldNearLimit(), 1e-9);
+	}
+
+	public void testCalculateAll() {
+		DepthOfFieldResult result = photo.calculateAll(new DepthOfFieldResult());
+
+		assertEquals(photo.calculateHyperfocalDistance(), result
+				.getHyperfocalDistance(), 1e-9);
+		assertEquals(photo.calculateHalfHyperfocalDistance(), result
+				.getHalfHyperfocalDistance(), 1e-9);
+		assertEquals(photo.calculateDepthOfFieldNearLimit(), result
+				.getDepthOfFieldNearLimit(), 1e-9);
+		assertEquals(photo.calculateDepthOfFieldFarLimit(), result
+				.getDepthOfFieldFarLimit(), 1e-9);
+		assertEquals(photo.calculateDepthOfFieldBefore(), result
+				.getDepthOfFieldBefore(), 1e-9);
+		assertEquals(photo.calculateDepthOfFieldBehind(), result
+				.getDepthOfFieldBehind(), 1e-9);
+		assertEquals(photo.calculateMagnification(), result
+				.getMagnification(), 1e-9);
+		assertEquals(photo.calculateFieldOfViewHorizontal(), result
+				.getFieldOfViewHorizontal(), 1e-9);
+		assertEquals(photo.calculateFieldOfViewVertical(), result
+				.getFieldOfViewVertical(), 1e-9);
+		assertEquals(photo.calculateFieldOfViewDiagonal(), result
+				.getFieldOfViewDiagonal(), 1e-9);
+		assertEquals(photo.calculateAngleOfViewHorizontal(), result
+				.getAngleOfViewHorizontal(), 1e-9);
+		assertEquals(photo.calculateAngleOfViewVertical(), result
+				.getAngleOfViewVertical(), 1e-9);
+		assertEquals(photo.calculateAngleOfViewDiagonal(), result
+				.getAngleOfViewDiagonal(), 1e-9);
+	}
+
+	public void testFixedPointCalculateAll() {
+		DepthOfFieldResult expected = photo.calculateAll(new DepthOfFieldResult());
+		DepthOfFieldResult actual = new DepthOfFieldResult();
+
+		assertTrue(FixedPointCalculator.calculateAll(photo, actual));
+
+		assertEquals(expected.getHyperfocalDistance(), actual
+				.getHyperfocalDistance(), 1e-4);
+		assertEquals(expected.getDepthOfFieldNearLimit(), actual
+				.getDepthOfFieldNearLimit(), 1e-4);
+		assertEquals(expected.getDepthOfFieldFarLimit(), actual
+				.getDepthOfFieldFarLimit(), 1e-4);
+		assertEquals(expected.getFieldOfViewHorizontal(), actual
+				.getFieldOfViewHorizontal(), 1e-4);
+		assertEquals(expected.getAngleOfViewDiagonal(), actual
+				.getAngleOfViewDiagonal(), 1e-2);
+
+		photo.setFixedPoint(true);
+		assertEquals(actual.getDepthOfFieldNearLimit(), photo.calculateAll(
+				new DepthOfFieldResult()).getDepthOfFieldNearLimit(), 0);
+	}
+
+	public void testFixedPointRange() {
+		DepthOfFieldResult result = new DepthOfFieldResult();
+
+		// 10 kilometers is the farthest focus distance in either unit
+		photo.setMetric(true);
+		photo.setFocusDistance(9999);
+		assertTrue(FixedPointCalculator.calculateAll(photo, result));
+		photo.setFocusDistance(10001);
+		assertFalse(FixedPointCalculator.calculateAll(photo, result));
+		photo.setFocusDistance(1e12);
+		assertFalse(FixedPointCalculator.calculateAll(photo, result));
+
+		photo.setMetric(false);
+		photo.setFocusDistance(32800);
+		assertTrue(FixedPointCalculator.calculateAll(photo, result));
+		photo.setFocusDistance(32820);
+		assertFalse(FixedPointCalculator.calculateAll(photo, result));
+	}
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+/**
+ * 
+ */
+package phototools.utility;
+
+import junit.framework.TestCase;
+
+/**
+ * @author tstavenger
+ * 
+ */
+public class DoubleFormatterTest extends TestCase {
+
+	public void testRound() {
+		assertEquals("1.23", DoubleFormatter.round(1.234, 2));
+		assertEquals("1.24", DoubleFormatter.round(1.235001, 2));
+		assertEquals("2.00", DoubleFormatter.round(1.999, 2));
+		assertEquals("0.05", DoubleFormatter.round(0.05, 2));
+		assertEquals("3", DoubleFormatter.round(2.5, 0));
+		assertEquals("-1.23", DoubleFormatter.round(-1.234, 2));
+		assertEquals("0.00", DoubleFormatter.round(-0.001, 2));
+		assertEquals("1000.0", DoubleFormatter.round(999.96, 1));
+	}
+
+	public void testRoundLargeValues() {
+		assertEquals("10000000000.00", DoubleFormatter.round(1.0E10, 2));
+		assertEquals("123456789012345.68", DoubleFormatter.round(
+				123456789012345.678, 2));
+		assertEquals("100000000000000000000.00", DoubleFormatter.round(1.0E20,
+				2));
+		assertEquals(309, DoubleFormatter.round(Double.MAX_VALUE, 0)
+				.length());
+	}
+
+	public void testRoundSpecialValues() {
+		assertEquals("\u221e", DoubleFormatter.round(
+				Double.POSITIVE_INFINITY, 2));
+		assertEquals("-\u221e", DoubleFormatter.round(
+				Double.NEGATIVE_INFINITY, 2));
+		assertEquals("NaN", DoubleFormatter.round(Double.NaN, 2));
+		assertEquals("\u221e", DoubleFormatter.roundDepthOfField(-1, 2));
+		assertEquals("4.50", DoubleFormatter.roundDepthOfField(4.5, 2));
+	}
+
+	public void testTruncate() {
+		assertEquals("1.99", DoubleFormatter.truncate(1.999, 2));
+		assertEquals("1", DoubleFormatter.truncate(1.999, 0));
+		assertEquals("10000000000.0", DoubleFormatter.truncate(1.0E10, 1));
+	}
+
+	public void testScale() {
+		assertEquals(123, DoubleFormatter.scale(1.234, 2));
+		assertEquals(124, DoubleFormatter.scale(1.235001, 2));
+		assertEquals(-123, DoubleFormatter.scale(-1.234, 2));
+		assertEquals(DoubleFormatter.scale(0.001, 2), DoubleFormatter.scale(
+				-0.001, 2));
+		assertEquals(DoubleFormatter.NOT_SCALABLE, DoubleFormatter.scale(
+				1.0E20, 2));
+		assertEquals(DoubleFormatter.NOT_SCALABLE, DoubleFormatter.scale(
+				Double.NaN, 2));
+		assertEquals(DoubleFormatter.NOT_SCALABLE, DoubleFormatter.scale(
+				Double.NEGATIVE_INFINITY, 2));
+	}
+
+	public void testAppendReusesBuffer() {
+		StringBuffer buffer = new StringBuffer("x = ");
+
+		DoubleFormatter.appendRounded(buffer, 0.5, 3).append(" m");
+
+		assertEquals("x = 0.500 m", buffer.toString());
+	}
+}
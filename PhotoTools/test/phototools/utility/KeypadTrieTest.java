@@ -0,0 +1,45 @@
+/**
+ * 
+ */
+package phototools.utility;
+
+import junit.framework.TestCase;
+
+/**
+ * @author tstavenger
+ * 
+ */
+public class KeypadTrieTest extends TestCase {
+	private KeypadTrie trie;
+
+	/**
+	 * Instantiate the KeypadTrie object to test
+	 * 
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	protected void setUp() throws Exception {
+		trie = new KeypadTrie(new String[] { "Canon APS-C", "Canon APS-H",
+				"Nikon DX", "Full Frame", "Canon Digital Rebel" });
+	}
+
+	public void testFind() {
+		assertEquals(0, trie.find(""));
+		assertEquals(0, trie.find("226"));
+		assertEquals(0, trie.find("2266602771"));
+		assertEquals(1, trie.find("22666027714"));
+		assertEquals(4, trie.find("2266603"));
+		assertEquals(2, trie.find("6"));
+		assertEquals(3, trie.find("3855"));
+		assertEquals(-1, trie.find("9"));
+		assertEquals(-1, trie.find("2267"));
+	}
+
+	public void testToKey() {
+		assertEquals('2', KeypadTrie.toKey('c'));
+		assertEquals('7', KeypadTrie.toKey('S'));
+		assertEquals('9', KeypadTrie.toKey('z'));
+		assertEquals('5', KeypadTrie.toKey('5'));
+		assertEquals('0', KeypadTrie.toKey(' '));
+		assertEquals('1', KeypadTrie.toKey('-'));
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ * 
+ */
+package phototools.utility;
+
+import junit.framework.TestCase;
+
+/**
+ * @author tstavenger
+ * 
+ */
+public class MathUtilityTest extends TestCase {
+
+	public void testAtan() {
+		assertEquals(0., MathUtility.atan(0), 0);
+		assertEquals(Math.PI / 4, MathUtility.atan(1), 1e-15);
+		assertEquals(Math.PI / 3, MathUtility.atan(Math.sqrt(3)), 1e-9);
+		assertEquals(-Math.PI / 6, MathUtility.atan(-1 / Math.sqrt(3)), 1e-9);
+		assertEquals(Math.PI / 2, MathUtility.atan(Double.POSITIVE_INFINITY), 0);
+		for (int i = -1000; i <= 1000; i++) {
+			double angle = i * Math.PI / 2001;
+			assertEquals(angle, MathUtility.atan(Math.tan(angle)), 7.3e-10);
+		}
+	}
+
+	public void testAtan2() {
+		assertEquals(0., MathUtility.atan2(0, 0), 0);
+		assertEquals(Math.PI / 4, MathUtility.atan2(1, 1), 1e-15);
+		assertEquals(3 * Math.PI / 4, MathUtility.atan2(1, -1), 1e-15);
+		assertEquals(-3 * Math.PI / 4, MathUtility.atan2(-1, -1), 1e-15);
+		assertEquals(-Math.PI / 4, MathUtility.atan2(-1, 1), 1e-15);
+		assertEquals(Math.PI / 2, MathUtility.atan2(2, 0), 0);
+		assertEquals(Math.PI, MathUtility.atan2(0, -2), 0);
+		assertTrue(Double.isNaN(MathUtility.atan2(Double.NaN, 1)));
+	}
+
+	public void testAsinAcos() {
+		assertEquals(Math.PI / 6, MathUtility.asin(0.5), 1e-9);
+		assertEquals(-Math.PI / 2, MathUtility.asin(-1), 0);
+		assertEquals(Math.PI / 3, MathUtility.acos(0.5), 1e-9);
+		assertEquals(0., MathUtility.acos(1), 0);
+		assertEquals(Math.PI, MathUtility.acos(-1), 0);
+		assertTrue(Double.isNaN(MathUtility.asin(1.5)));
+		assertTrue(Double.isNaN(MathUtility.acos(-1.5)));
+	}
+
+	public void testExp() {
+		assertEquals(1., MathUtility.exp(0), 0);
+		assertEquals(2.718281828459045, MathUtility.exp(1), 1e-15);
+		assertEquals(4.5399929762484854e-5, MathUtility.exp(-10), 1e-19);
+		assertEquals(Double.POSITIVE_INFINITY, MathUtility.exp(710), 0);
+		assertEquals(0., MathUtility.exp(-746), 0);
+	}
+
+	public void testLog() {
+		assertEquals(0., MathUtility.log(1), 0);
+		assertEquals(1., MathUtility.log(2.718281828459045), 1e-15);
+		assertEquals(-6.907755278982137, MathUtility.log(0.001), 1e-14);
+		assertTrue(Double.isNaN(MathUtility.log(0)));
+		assertTrue(Double.isNaN(MathUtility.log(-1)));
+	}
+
+	public void testPow() {
+		assertEquals(1024., MathUtility.pow(2, 10), 0);
+		assertEquals(1. / 243, MathUtility.pow(3, -5), 1e-18);
+		assertEquals(-8., MathUtility.pow(-2, 3), 0);
+		assertEquals(5.656854249492381, MathUtility.pow(2, 2.5), 1e-14);
+		assertTrue(Double.isNaN(MathUtility.pow(-2, 0.5)));
+	}
+}
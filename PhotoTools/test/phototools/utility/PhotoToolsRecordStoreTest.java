@@ -0,0 +1,220 @@
+/**
+ * 
+ */
+package phototools.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+
+import javax.microedition.rms.RecordStore;
+
+import junit.framework.TestCase;
+
+/**
+ * @author tstavenger
+ * 
+ */
+public class PhotoToolsRecordStoreTest extends TestCase {
+	private static final String RECORD_STORE_NAME = "PhotoToolsOptions";
+	private static final int MAGIC = 0x50544F50;
+
+	/**
+	 * Start every test from an empty record store and unloaded options
+	 * 
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	protected void setUp() throws Exception {
+		RecordStore.reset();
+		PhotoToolsRecordStore.unload();
+	}
+
+	/**
+	 * Stop the idle flush timer
+	 * 
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	protected void tearDown() throws Exception {
+		PhotoToolsRecordStore.close();
+		PhotoToolsRecordStore.unload();
+		RecordStore.reset();
+	}
+
+	public void testDefaults() {
+		assertEquals(0, PhotoToolsRecordStore.getCameraSelectedIndex());
+		assertEquals(50, PhotoToolsRecordStore.getFocalLength());
+		assertEquals(10, PhotoToolsRecordStore.getFocusDistance(), 0);
+
+		// reading the defaults writes nothing
+		PhotoToolsRecordStore.flush();
+		assertEquals(0, RecordStore.getWriteCount());
+	}
+
+	public void testRoundTrip() throws Exception {
+		PhotoToolsRecordStore.setApertureScaleSelectedIndex(2);
+		PhotoToolsRecordStore.setCameraScaleSelectedIndex(7);
+		PhotoToolsRecordStore.setUnitSelectedIndex(1);
+		PhotoToolsRecordStore.setFocalLength(85);
+		PhotoToolsRecordStore.setApertureSelectedIndex(4);
+		PhotoToolsRecordStore.setFocusDistance(2.5);
+		PhotoToolsRecordStore.setArithmeticSelectedIndex(1);
+		PhotoToolsRecordStore.flush();
+
+		assertEquals(1, countRecords());
+		assertMagic(readRecord());
+
+		PhotoToolsRecordStore.unload();
+
+		assertEquals(2, PhotoToolsRecordStore.getApertureScaleSelectedIndex());
+		assertEquals(7, PhotoToolsRecordStore.getCameraSelectedIndex());
+		assertEquals(1, PhotoToolsRecordStore.getUnitSelectedIndex());
+		assertEquals(85, PhotoToolsRecordStore.getFocalLength());
+		assertEquals(4, PhotoToolsRecordStore.getApertureSelectedIndex());
+		assertEquals(2.5, PhotoToolsRecordStore.getFocusDistance(), 0);
+		assertEquals(1, PhotoToolsRecordStore.getArithmeticSelectedIndex());
+
+		// a second change overwrites the same record
+		PhotoToolsRecordStore.setFocalLength(200);
+		PhotoToolsRecordStore.flush();
+		PhotoToolsRecordStore.unload();
+
+		assertEquals(1, countRecords());
+		assertEquals(200, PhotoToolsRecordStore.getFocalLength());
+		assertEquals(7, PhotoToolsRecordStore.getCameraSelectedIndex());
+	}
+
+	public void testMigrateLegacyOptions() throws Exception {
+		RecordStore recordStore = RecordStore.openRecordStore(
+				RECORD_STORE_NAME, true);
+
+		addRecord(recordStore, "apertureScale=1".getBytes());
+		addRecord(recordStore, "camera=3".getBytes());
+		addRecord(recordStore, "unit=1".getBytes());
+		addRecord(recordStore, "focalLength=135".getBytes());
+		addRecord(recordStore, "aperture=9".getBytes());
+		addRecord(recordStore, "focusDistance=12.5".getBytes());
+		addRecord(recordStore, "garbage".getBytes());
+		addRecord(recordStore, "focalLength=".getBytes());
+		recordStore.closeRecordStore();
+
+		assertEquals(1, PhotoToolsRecordStore.getApertureScaleSelectedIndex());
+		assertEquals(3, PhotoToolsRecordStore.getCameraSelectedIndex());
+		assertEquals(1, PhotoToolsRecordStore.getUnitSelectedIndex());
+		assertEquals(135, PhotoToolsRecordStore.getFocalLength());
+		assertEquals(9, PhotoToolsRecordStore.getApertureSelectedIndex());
+		assertEquals(12.5, PhotoToolsRecordStore.getFocusDistance(), 0);
+		assertEquals(0, PhotoToolsRecordStore.getArithmeticSelectedIndex());
+
+		// the store was recreated holding only the binary record
+		assertEquals(1, countRecords());
+		assertMagic(readRecord());
+
+		PhotoToolsRecordStore.unload();
+
+		assertEquals(3, PhotoToolsRecordStore.getCameraSelectedIndex());
+		assertEquals(135, PhotoToolsRecordStore.getFocalLength());
+		assertEquals(12.5, PhotoToolsRecordStore.getFocusDistance(), 0);
+	}
+
+	public void testReadVersion1() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		out.writeInt(MAGIC);
+		out.writeByte(1);
+		out.writeInt(2);
+		out.writeInt(5);
+		out.writeInt(1);
+		out.writeInt(24);
+		out.writeInt(6);
+		out.writeDouble(3.5);
+
+		RecordStore recordStore = RecordStore.openRecordStore(
+				RECORD_STORE_NAME, true);
+
+		addRecord(recordStore, bytes.toByteArray());
+		recordStore.closeRecordStore();
+
+		assertEquals(2, PhotoToolsRecordStore.getApertureScaleSelectedIndex());
+		assertEquals(5, PhotoToolsRecordStore.getCameraSelectedIndex());
+		assertEquals(1, PhotoToolsRecordStore.getUnitSelectedIndex());
+		assertEquals(24, PhotoToolsRecordStore.getFocalLength());
+		assertEquals(6, PhotoToolsRecordStore.getApertureSelectedIndex());
+		assertEquals(3.5, PhotoToolsRecordStore.getFocusDistance(), 0);
+		assertEquals(0, PhotoToolsRecordStore.getArithmeticSelectedIndex());
+
+		// reading a version 1 record does not rewrite it
+		assertEquals(1, RecordStore.getWriteCount());
+
+		// the next change rewrites it in place as version 2
+		PhotoToolsRecordStore.setArithmeticSelectedIndex(1);
+		PhotoToolsRecordStore.flush();
+
+		byte[] raw = readRecord();
+
+		assertEquals(1, countRecords());
+		assertEquals(2, raw[4]);
+		assertEquals(bytes.size() + 4, raw.length);
+
+		PhotoToolsRecordStore.unload();
+
+		assertEquals(1, PhotoToolsRecordStore.getArithmeticSelectedIndex());
+		assertEquals(24, PhotoToolsRecordStore.getFocalLength());
+	}
+
+	public void testRecreateStore() throws Exception {
+		RecordStore recordStore = RecordStore.openRecordStore(
+				RECORD_STORE_NAME, true);
+
+		// a deleted record moves the next record id past the options record
+		recordStore.deleteRecord(addRecord(recordStore, "camera=2"
+				.getBytes()));
+		recordStore.closeRecordStore();
+
+		PhotoToolsRecordStore.setFocalLength(35);
+		PhotoToolsRecordStore.flush();
+
+		assertEquals(1, countRecords());
+		assertMagic(readRecord());
+
+		PhotoToolsRecordStore.unload();
+
+		assertEquals(35, PhotoToolsRecordStore.getFocalLength());
+		assertEquals(0, PhotoToolsRecordStore.getCameraSelectedIndex());
+	}
+
+	private static int addRecord(RecordStore recordStore, byte[] raw)
+			throws Exception {
+		return recordStore.addRecord(raw, 0, raw.length);
+	}
+
+	private static int countRecords() throws Exception {
+		RecordStore recordStore = RecordStore.openRecordStore(
+				RECORD_STORE_NAME, false);
+
+		try {
+			return recordStore.getNumRecords();
+		} finally {
+			recordStore.closeRecordStore();
+		}
+	}
+
+	/**
+	 * @return byte[] the options record, which must have the first record id
+	 */
+	private static byte[] readRecord() throws Exception {
+		RecordStore recordStore = RecordStore.openRecordStore(
+				RECORD_STORE_NAME, false);
+
+		try {
+			return recordStore.getRecord(1);
+		} finally {
+			recordStore.closeRecordStore();
+		}
+	}
+
+	private static void assertMagic(byte[] raw) {
+		assertTrue(raw.length > 4);
+		assertEquals(MAGIC, ((raw[0] & 0xFF) << 24) | ((raw[1] & 0xFF) << 16)
+				| ((raw[2] & 0xFF) << 8) | (raw[3] & 0xFF));
+	}
+}
@@ -0,0 +1,45 @@
+/**
+ * 
+ */
+package phototools.view.midlet;
+
+import javax.microedition.lcdui.Display;
+import javax.microedition.lcdui.Graphics;
+import javax.microedition.rms.RecordStore;
+
+import junit.framework.TestCase;
+
+/**
+ * @author tstavenger
+ * 
+ */
+public class FormCanvasTest extends TestCase {
+	public void testSizeChangedBeforeSetForm() {
+		FormCanvas canvas = new FormCanvas(new PhotoToolsMIDlet());
+
+		canvas.sizeChanged(176, 208);
+		assertNull(canvas.getForm());
+	}
+
+	public void testSelectedTextFieldValueIsWhite() throws Exception {
+		RecordStore.reset();
+
+		PhotoToolsMIDlet midlet = new PhotoToolsMIDlet();
+
+		midlet.start();
+
+		try {
+			FormCanvas canvas = (FormCanvas) Display.getDisplay(midlet)
+					.getCurrent();
+
+			Graphics.resetCounters();
+			canvas.repaint();
+			canvas.serviceRepaints();
+
+			// the focal length field is selected and shows the default of 50
+			assertEquals(0xFFFFFF, Graphics.getDrawStringColor("50"));
+		} finally {
+			midlet.destroy();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * 
+ */
+package phototools.view.midlet;
+
+import javax.microedition.lcdui.ChoiceGroup;
+import javax.microedition.lcdui.Command;
+import javax.microedition.lcdui.Display;
+import javax.microedition.rms.RecordStore;
+
+import junit.framework.TestCase;
+
+/**
+ * @author tstavenger
+ * 
+ */
+public class PhotoFormTest extends TestCase {
+	private PhotoToolsMIDlet midlet;
+	private Display display;
+	private PhotoToolsCanvas canvas;
+	private PhotoForm photoForm;
+
+	/**
+	 * Start the application and find the calculator form it shows
+	 * 
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	protected void setUp() throws Exception {
+		RecordStore.reset();
+
+		midlet = new PhotoToolsMIDlet();
+		midlet.start();
+		display = Display.getDisplay(midlet);
+		canvas = (PhotoToolsCanvas) display.getCurrent();
+		photoForm = (PhotoForm) canvas.getForm();
+	}
+
+	protected void tearDown() throws Exception {
+		midlet.destroy();
+	}
+
+	public void testPaintDoesNotRecalculate() {
+		int calculationCount = photoForm.getCalculationCount();
+
+		for (int i = 0; i < 3; i++) {
+			canvas.repaint();
+			canvas.serviceRepaints();
+		}
+
+		assertEquals(calculationCount, photoForm.getCalculationCount());
+	}
+
+	public void testUnchangedOptionsDoNotRecalculate() {
+		int calculationCount = photoForm.getCalculationCount();
+
+		display.fireCommand(findCommand("Options"));
+		assertTrue(canvas.getForm() instanceof OptionsForm);
+		display.fireCommand(findCommand("OK"));
+
+		assertSame(photoForm, canvas.getForm());
+		assertEquals(calculationCount, photoForm.getCalculationCount());
+	}
+
+	public void testChangedOptionsRecalculateOnce() {
+		int calculationCount = photoForm.getCalculationCount();
+
+		display.fireCommand(findCommand("Options"));
+
+		OptionsForm optionsForm = (OptionsForm) canvas.getForm();
+		ChoiceGroup units = (ChoiceGroup) optionsForm.get(2);
+		ChoiceGroup arithmetic = (ChoiceGroup) optionsForm.get(3);
+
+		units.setSelectedIndex(1 - units.getSelectedIndex(), true);
+		arithmetic.setSelectedIndex(1 - arithmetic.getSelectedIndex(), true);
+		display.fireCommand(findCommand("OK"));
+
+		assertEquals(calculationCount + 1, photoForm.getCalculationCount());
+	}
+
+	private Command findCommand(String label) {
+		Command[] commands = canvas.getCommands();
+
+		for (int i = 0; i < commands.length; i++) {
+			if (label.equals(commands[i].getLabel())) {
+				return commands[i];
+			}
+		}
+
+		throw new IllegalStateException("no " + label + " command");
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Minimal timing harness for the desktop benchmarks. A benchmark performs the
+ * requested number of operations and returns a value derived from their
+ * results, which is kept so the JIT cannot discard the work.
+ * 
+ * Bytes allocated per operation are read from the HotSpot ThreadMXBean where
+ * it supports them.
+ */
+public abstract class Benchmark {
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int MEASURED_ROUNDS = 5;
+
+	private static double sink;
+
+	private String name;
+
+	private double bytesPerOperation = -1;
+
+	/**
+	 * @param name
+	 *            String name to report
+	 */
+	protected Benchmark(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Perform the operations being measured.
+	 * 
+	 * @param operations
+	 *            int number of operations to perform
+	 * @return double any value depending on the results
+	 */
+	protected abstract double run(int operations);
+
+	/**
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Warm up, then time several rounds of the given number of operations.
+	 * 
+	 * @param operations
+	 *            int operations per round
+	 * @return double the fastest round in nanoseconds per operation
+	 */
+	public double measure(int operations) {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			sink += run(operations);
+		}
+
+		double best = Double.MAX_VALUE;
+		long startBytes = getAllocatedBytes();
+
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			long start = System.nanoTime();
+			sink += run(operations);
+			long elapsed = System.nanoTime() - start;
+
+			best = Math.min(best, (double) elapsed / operations);
+		}
+
+		if (startBytes >= 0) {
+			bytesPerOperation = (double) (getAllocatedBytes() - startBytes)
+					/ ((long) MEASURED_ROUNDS * operations);
+		}
+
+		return best;
+	}
+
+	/**
+	 * Measure and print one line: name and nanoseconds per operation.
+	 * 
+	 * @param operations
+	 *            int operations per round
+	 * @return double nanoseconds per operation
+	 */
+	public double report(int operations) {
+		double nanoseconds = measure(operations);
+		System.out.println(pad(getName(), 48) + format(nanoseconds)
+				+ " ns/op");
+
+		return nanoseconds;
+	}
+
+	/**
+	 * @return double bytes allocated per operation by the last
+	 *         {@link #measure(int)}, or -1 if they cannot be counted
+	 */
+	public double getBytesPerOperation() {
+		return bytesPerOperation;
+	}
+
+	/**
+	 * @return long bytes allocated so far by the current thread, or -1 if the
+	 *         JVM cannot count them
+	 */
+	public static long getAllocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean hotSpot =
+					(com.sun.management.ThreadMXBean) threads;
+
+			if (hotSpot.isThreadAllocatedMemorySupported()) {
+				return hotSpot.getThreadAllocatedBytes(Thread.currentThread()
+						.getId());
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @return the accumulated results, only so that they are used
+	 */
+	public static double getSink() {
+		return sink;
+	}
+
+	static String pad(String string, int width) {
+		StringBuffer buffer = new StringBuffer(string);
+
+		while (buffer.length() < width) {
+			buffer.append(' ');
+		}
+
+		return buffer.toString();
+	}
+
+	static String format(double value) {
+		return pad(String.valueOf(Math.round(value * 100) / 100D), 10);
+	}
+}
@@ -0,0 +1,393 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.benchmark;
+
+import phototools.Aperture;
+import phototools.BatchCalculator;
+import phototools.Camera;
+import phototools.DepthOfFieldResult;
+import phototools.Photo;
+import phototools.utility.DoubleFormatter;
+import phototools.utility.MathUtility;
+
+/**
+ * Throughput and allocation of the calculation core, without the UI: the
+ * {@link MathUtility} functions, {@link Aperture#calculateAperture(int)},
+ * every Photo.calculate method, {@link BatchCalculator}, per photo,
+ * {@link DoubleFormatter#round(double, int)} and the work of one PhotoForm
+ * recalculation.
+ * 
+ * The aperture benchmark runs for every stop scale, and the Photo, batch and
+ * recalculation benchmarks for every camera and stop scale. Inputs change every
+ * operation, so nothing is served from the cache in {@link Photo}.
+ * 
+ * An optional argument runs only the benchmarks whose name contains it.
+ */
+public class CalculationBenchmark {
+	private static final int OPERATIONS = 100000;
+
+	private static final String[] SCALES = { "full", "half", "third" };
+
+	private static final String[] PHOTO_METHODS = { "calculateAll",
+			"calculateHyperfocalDistance", "calculateHalfHyperfocalDistance",
+			"calculateDepthOfFieldNearLimit", "calculateDepthOfFieldFarLimit",
+			"calculateDepthOfFieldBefore", "calculateDepthOfFieldBehind",
+			"calculateMagnification", "calculateFieldOfViewHorizontal",
+			"calculateFieldOfViewVertical", "calculateFieldOfViewDiagonal",
+			"calculateAngleOfViewHorizontal", "calculateAngleOfViewVertical",
+			"calculateAngleOfViewDiagonal" };
+
+	/** Inputs, eight of each so that they are picked by masking */
+	private static final int[] FOCAL_LENGTHS = { 12, 24, 35, 50, 85, 135,
+			200, 400 };
+	private static final double[] FOCUS_DISTANCES = { 0.5, 1, 1.5, 3, 5, 10,
+			30, 100 };
+	private static final String[] FOCAL_LENGTH_TEXTS = { "12", "24", "35",
+			"50", "85", "135", "200", "400" };
+	private static final String[] FOCUS_DISTANCE_TEXTS = { "0.5", "1", "1.5",
+			"3", "5", "10", "30", "100" };
+
+	/** As shown by PhotoForm */
+	private static final int PRECISION = 2;
+
+	private static String filter = "";
+
+	public static void main(String[] args) {
+		if (args.length > 0) {
+			filter = args[0];
+		}
+
+		Camera[] cameras = Camera.getCameras();
+
+		System.out.println(Benchmark.pad("benchmark", 40)
+				+ Benchmark.pad("camera", 36) + Benchmark.pad("stops", 8)
+				+ Benchmark.pad("ops/ms", 12) + Benchmark.pad("ns/op", 12)
+				+ "bytes/op");
+
+		reportMath();
+
+		for (int s = 0; s < SCALES.length; s++) {
+			reportAperture(createAperture(s), s);
+		}
+
+		for (int c = 0; c < cameras.length; c++) {
+			for (int s = 0; s < SCALES.length; s++) {
+				for (int m = 0; m < PHOTO_METHODS.length; m++) {
+					reportPhoto(cameras[c], createAperture(s), s, m);
+				}
+			}
+		}
+
+		for (int c = 0; c < cameras.length; c++) {
+			for (int s = 0; s < SCALES.length; s++) {
+				reportBatch(cameras[c], createAperture(s), s);
+			}
+		}
+
+		reportRound();
+
+		for (int c = 0; c < cameras.length; c++) {
+			for (int s = 0; s < SCALES.length; s++) {
+				reportRecalculate(cameras[c], createAperture(s), s);
+			}
+		}
+	}
+
+	private static void reportMath() {
+		final double[] arguments = new double[1024];
+
+		for (int i = 0; i < arguments.length; i++) {
+			arguments[i] = 0.01 + i / 128D;
+		}
+
+		report(new Benchmark("MathUtility.pow") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					sum += MathUtility.pow(2, arguments[i & 1023]);
+				}
+
+				return sum;
+			}
+		}, null, -1);
+
+		report(new Benchmark("MathUtility.exp") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					sum += MathUtility.exp(arguments[i & 1023]);
+				}
+
+				return sum;
+			}
+		}, null, -1);
+
+		report(new Benchmark("MathUtility.log") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					sum += MathUtility.log(arguments[i & 1023]);
+				}
+
+				return sum;
+			}
+		}, null, -1);
+
+		report(new Benchmark("MathUtility.atan") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					sum += MathUtility.atan(arguments[i & 1023]);
+				}
+
+				return sum;
+			}
+		}, null, -1);
+	}
+
+	private static void reportAperture(final Aperture aperture, int scale) {
+		final int steps = aperture.getFormattedApertures().length;
+
+		report(new Benchmark("Aperture.calculateAperture") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					sum += aperture.calculateAperture(i % steps);
+				}
+
+				return sum;
+			}
+		}, null, scale);
+	}
+
+	private static void reportPhoto(Camera camera, final Aperture aperture,
+			int scale, final int method) {
+		final Photo photo = new Photo(camera, 50, 5.6, 10);
+		final DepthOfFieldResult result = new DepthOfFieldResult();
+		final int steps = aperture.getFormattedApertures().length;
+
+		report(new Benchmark("Photo." + PHOTO_METHODS[method]) {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					photo.setFocalLength(FOCAL_LENGTHS[i & 7]);
+					photo.setAperture(aperture.calculateAperture(i % steps));
+					photo.setFocusDistance(FOCUS_DISTANCES[(i >> 3) & 7]);
+					sum += calculate(photo, method, result);
+				}
+
+				return sum;
+			}
+		}, camera, scale);
+	}
+
+	/**
+	 * Calculate the same inputs as the Photo benchmarks in batches of 1024
+	 * photos, counting each photo as one operation.
+	 */
+	private static void reportBatch(final Camera camera, Aperture aperture,
+			int scale) {
+		final int batch = 1024;
+		final int[] focalLengths = new int[batch];
+		final double[] apertures = new double[batch];
+		final double[] focusDistances = new double[batch];
+		final double[] hyperfocalDistances = new double[batch];
+		final double[] nearLimits = new double[batch];
+		final double[] farLimits = new double[batch];
+		final double[] widths = new double[batch];
+		final double[] heights = new double[batch];
+		int steps = aperture.getFormattedApertures().length;
+
+		for (int i = 0; i < batch; i++) {
+			focalLengths[i] = FOCAL_LENGTHS[i & 7];
+			apertures[i] = aperture.calculateAperture(i % steps);
+			focusDistances[i] = FOCUS_DISTANCES[(i >> 3) & 7] * 1000;
+		}
+
+		report(new Benchmark("BatchCalculator.calculate") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i += batch) {
+					BatchCalculator.calculate(camera, focalLengths, apertures,
+							focusDistances, 0, Math.min(batch, operations
+									- i), hyperfocalDistances, nearLimits,
+							farLimits, widths, heights);
+					sum += nearLimits[i & (batch - 1)];
+				}
+
+				return sum;
+			}
+		}, camera, scale);
+	}
+
+	private static void reportRound() {
+		report(new Benchmark("DoubleFormatter.round") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					sum += DoubleFormatter.round(
+							FOCUS_DISTANCES[i & 7] * 1.2345, PRECISION)
+							.length();
+				}
+
+				return sum;
+			}
+		}, null, -1);
+	}
+
+	/**
+	 * What PhotoForm does when an input changes, without its items: parse the
+	 * text fields, calculate, and format every result. Every value is
+	 * formatted, as though all of them changed.
+	 */
+	private static void reportRecalculate(Camera camera,
+			final Aperture aperture, int scale) {
+		final Photo photo = new Photo(camera, 50, 5.6, 10);
+		final DepthOfFieldResult result = new DepthOfFieldResult();
+		final StringBuffer text = new StringBuffer();
+		final int steps = aperture.getFormattedApertures().length;
+
+		report(new Benchmark("PhotoForm recalculation") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					photo.setAperture(aperture.calculateAperture(i % steps));
+					photo.setFocalLength(Integer
+							.parseInt(FOCAL_LENGTH_TEXTS[i & 7]));
+					photo.setFocusDistance(Double
+							.parseDouble(FOCUS_DISTANCE_TEXTS[(i >> 3) & 7]));
+					photo.calculateAll(result);
+
+					sum += formatDistance(text, result
+							.getHalfHyperfocalDistance());
+					sum += formatDistance(text, result.getHyperfocalDistance());
+					sum += formatPair(text, result.getAngleOfViewHorizontal(),
+							result.getAngleOfViewVertical());
+					sum += formatDepthOfField(text, result
+							.getDepthOfFieldFarLimit());
+					sum += formatDistance(text, result
+							.getDepthOfFieldNearLimit());
+					sum += formatDistance(text, result
+							.getDepthOfFieldBefore());
+					sum += formatDepthOfField(text, result
+							.getDepthOfFieldBehind());
+					sum += formatPair(text, result.getFieldOfViewHorizontal(),
+							result.getFieldOfViewVertical());
+				}
+
+				return sum;
+			}
+		}, camera, scale);
+	}
+
+	private static int formatDistance(StringBuffer text, double value) {
+		text.setLength(0);
+
+		return DoubleFormatter.appendRounded(text, value, PRECISION).append(
+				" m").toString().length();
+	}
+
+	private static int formatDepthOfField(StringBuffer text, double value) {
+		text.setLength(0);
+
+		return DoubleFormatter.appendDepthOfField(text, value, PRECISION)
+				.append(" m").toString().length();
+	}
+
+	private static int formatPair(StringBuffer text, double first,
+			double second) {
+		text.setLength(0);
+		DoubleFormatter.appendRounded(text, first, PRECISION).append(" x ");
+
+		return DoubleFormatter.appendRounded(text, second, PRECISION)
+				.toString().length();
+	}
+
+	/**
+	 * @param method
+	 *            int index into PHOTO_METHODS
+	 * @return double the calculated value
+	 */
+	private static double calculate(Photo photo, int method,
+			DepthOfFieldResult result) {
+		switch (method) {
+		case 0:
+			return photo.calculateAll(result).getDepthOfFieldNearLimit();
+		case 1:
+			return photo.calculateHyperfocalDistance();
+		case 2:
+			return photo.calculateHalfHyperfocalDistance();
+		case 3:
+			return photo.calculateDepthOfFieldNearLimit();
+		case 4:
+			return photo.calculateDepthOfFieldFarLimit();
+		case 5:
+			return photo.calculateDepthOfFieldBefore();
+		case 6:
+			return photo.calculateDepthOfFieldBehind();
+		case 7:
+			return photo.calculateMagnification();
+		case 8:
+			return photo.calculateFieldOfViewHorizontal();
+		case 9:
+			return photo.calculateFieldOfViewVertical();
+		case 10:
+			return photo.calculateFieldOfViewDiagonal();
+		case 11:
+			return photo.calculateAngleOfViewHorizontal();
+		case 12:
+			return photo.calculateAngleOfViewVertical();
+		default:
+			return photo.calculateAngleOfViewDiagonal();
+		}
+	}
+
+	private static Aperture createAperture(int scale) {
+		Aperture aperture = new Aperture();
+
+		if (scale == 0) {
+			aperture.setFullStop();
+		} else if (scale == 1) {
+			aperture.setHalfStop();
+		} else {
+			aperture.setThirdStop();
+		}
+
+		return aperture;
+	}
+
+	/**
+	 * Measure and print one line: name, parameters, throughput, time and
+	 * allocation per operation.
+	 * 
+	 * @param camera
+	 *            Camera the benchmark runs for, or null
+	 * @param scale
+	 *            int index into SCALES the benchmark runs for, or -1
+	 */
+	private static void report(Benchmark benchmark, Camera camera, int scale) {
+		if (benchmark.getName().indexOf(filter) < 0) {
+			return;
+		}
+
+		double nanoseconds = benchmark.measure(OPERATIONS);
+		double bytes = benchmark.getBytesPerOperation();
+
+		System.out.println(Benchmark.pad(benchmark.getName(), 40)
+				+ Benchmark.pad(camera == null ? "-" : camera.getModel(), 36)
+				+ Benchmark.pad(scale < 0 ? "-" : SCALES[scale], 8)
+				+ Benchmark.pad(Benchmark.format(1e6 / nanoseconds), 12)
+				+ Benchmark.pad(Benchmark.format(nanoseconds), 12)
+				+ (bytes < 0 ? "n/a" : Benchmark.format(bytes)));
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import phototools.BinaryCameraDatabase;
+import phototools.Camera;
+import phototools.CameraDatabase;
+import phototools.XmlCameraDatabase;
+import phototools.tools.CameraDatabaseCompiler;
+
+/**
+ * Compare loading the XML and the compiled binary camera databases for 10,
+ * 500 and 5000 cameras: reading every model name, as a keypad search does
+ * the first time, reading the last page of model names, as when scrolling the
+ * camera picker to the end, and reading the last camera, as when it is
+ * selected.
+ */
+public class CameraDatabaseBenchmark {
+	private static final int[] SIZES = { 10, 500, 5000 };
+
+	/** Roughly how many cameras to read per measured round */
+	private static final int CAMERAS_PER_ROUND = 200000;
+
+	/** Model names shown at a time by the camera picker */
+	private static final int PAGE_SIZE = 16;
+
+	public static void main(String[] args) throws IOException {
+		for (int i = 0; i < SIZES.length; i++) {
+			Camera[] cameras = createCameras(SIZES[i]);
+			final byte[] xml = toXml(cameras);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+			CameraDatabaseCompiler.write(cameras, out);
+
+			final byte[] binary = out.toByteArray();
+
+			System.out.println(SIZES[i] + " cameras, " + xml.length
+					+ " bytes of XML, " + binary.length + " bytes of binary");
+
+			int operations = Math.max(1, CAMERAS_PER_ROUND / SIZES[i]);
+
+			report("xml", new XmlCameraDatabase("xml") {
+				protected InputStream open() {
+					return new ByteArrayInputStream(xml);
+				}
+			}, SIZES[i] - 1, operations);
+
+			report("binary", new BinaryCameraDatabase("binary") {
+				protected InputStream open() {
+					return new ByteArrayInputStream(binary);
+				}
+			}, SIZES[i] - 1, operations);
+		}
+	}
+
+	private static void report(String format, final CameraDatabase database,
+			final int last, int operations) {
+		new Benchmark("  " + format + " read models") {
+			protected double run(int operations) {
+				try {
+					double sum = 0;
+
+					for (int i = 0; i < operations; i++) {
+						sum += database.readModels().length;
+					}
+
+					return sum;
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		}.report(operations);
+
+		new Benchmark("  " + format + " read last page") {
+			protected double run(int operations) {
+				try {
+					double sum = 0;
+
+					for (int i = 0; i < operations; i++) {
+						sum += database.readModels(last - last % PAGE_SIZE,
+								PAGE_SIZE).length;
+					}
+
+					return sum;
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		}.report(operations);
+
+		new Benchmark("  " + format + " read last camera") {
+			protected double run(int operations) {
+				try {
+					double sum = 0;
+
+					for (int i = 0; i < operations; i++) {
+						sum += database.readCamera(last).getCircleOfConfusion();
+					}
+
+					return sum;
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		}.report(operations);
+	}
+
+	private static Camera[] createCameras(int count) {
+		Camera[] cameras = new Camera[count];
+
+		for (int i = 0; i < count; i++) {
+			cameras[i] = new Camera("Camera Body " + i, 0.015 + i % 16 * 0.001,
+					17.3 + i % 19, 13 + i % 11);
+		}
+
+		return cameras;
+	}
+
+	private static byte[] toXml(Camera[] cameras) throws IOException {
+		StringBuffer xml = new StringBuffer();
+
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<cameras>\n");
+
+		for (int i = 0; i < cameras.length; i++) {
+			xml.append("\t<camera>\n\t\t<name>").append(cameras[i].getModel())
+					.append("</name>\n\t\t<circleofconfusion>").append(
+							cameras[i].getCircleOfConfusion()).append(
+							"</circleofconfusion>\n\t\t<frame>\n\t\t\t<width>")
+					.append(cameras[i].getFrameWidth()).append(
+							"</width>\n\t\t\t<height>").append(
+							cameras[i].getFrameHeight()).append(
+							"</height>\n\t\t</frame>\n\t</camera>\n");
+		}
+
+		xml.append("</cameras>\n");
+
+		return xml.toString().getBytes("UTF-8");
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.benchmark;
+
+import phototools.Aperture;
+import phototools.Camera;
+import phototools.DepthOfFieldResult;
+import phototools.FixedPointCalculator;
+import phototools.Photo;
+
+/**
+ * Sweep every camera, every third stop aperture, focal lengths from 8mm to
+ * 800mm and focus distances from 0.1 to 1000 (meters and feet) through both
+ * the floating point and the fixed point calculation, then report the largest
+ * and mean relative error of each value and the time per calculation of
+ * each.
+ * 
+ * A far limit beyond the hyperfocal distance is infinite, so far limits are
+ * only compared when both calculations agree it is finite; disagreements are
+ * counted separately.
+ */
+public class FixedPointAccuracyReport {
+	private static final String[] NAMES = { "hyperfocal", "half hyperfocal",
+			"near limit", "far limit", "before", "behind", "magnification",
+			"fov horizontal", "fov vertical", "fov diagonal", "aov horizontal",
+			"aov vertical", "aov diagonal" };
+
+	private static final int[] FOCAL_LENGTHS = { 8, 12, 17, 24, 35, 50, 85,
+			105, 135, 200, 300, 400, 600, 800 };
+
+	private static final int OPERATIONS = 1000000;
+
+	private static final int DISTANCES_PER_DECADE = 10;
+
+	private static final double MINIMUM_DISTANCE = 0.1;
+
+	private static final double MAXIMUM_DISTANCE = 1000;
+
+	private final double[] maximumError = new double[NAMES.length];
+	private final double[] totalError = new double[NAMES.length];
+	private final int[] compared = new int[NAMES.length];
+	private int infinityDisagreements;
+	private int fallbacks;
+	private int calculations;
+
+	public static void main(String[] args) {
+		FixedPointAccuracyReport report = new FixedPointAccuracyReport();
+
+		report.sweep();
+		report.print();
+
+		report(false);
+		report(true);
+	}
+
+	/**
+	 * Time calculateAll with inputs which change every call, so nothing is
+	 * served from the cache in {@link Photo}.
+	 */
+	private static void report(final boolean fixedPoint) {
+		final Photo photo = new Photo(new Camera(), 50, 5.6, 10);
+		final DepthOfFieldResult result = new DepthOfFieldResult();
+
+		photo.setFixedPoint(fixedPoint);
+
+		new Benchmark(fixedPoint ? "fixed point calculateAll"
+				: "double calculateAll") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					photo.setFocalLength(FOCAL_LENGTHS[i
+							% FOCAL_LENGTHS.length]);
+					photo.setFocusDistance(1 + (i & 7));
+					sum += photo.calculateAll(result)
+							.getDepthOfFieldNearLimit();
+				}
+
+				return sum;
+			}
+		}.report(OPERATIONS);
+	}
+
+	private void sweep() {
+		Camera[] cameras = Camera.getCameras();
+		Aperture aperture = new Aperture();
+		int steps = aperture.getFormattedApertures().length;
+		int decades = (int) Math.round(Math.log(MAXIMUM_DISTANCE
+				/ MINIMUM_DISTANCE)
+				/ Math.log(10));
+		int distances = decades * DISTANCES_PER_DECADE + 1;
+		DepthOfFieldResult expected = new DepthOfFieldResult();
+		DepthOfFieldResult actual = new DepthOfFieldResult();
+
+		for (int c = 0; c < cameras.length; c++) {
+			for (int s = 0; s < steps; s++) {
+				for (int f = 0; f < FOCAL_LENGTHS.length; f++) {
+					for (int d = 0; d < distances; d++) {
+						for (int unit = 0; unit < 2; unit++) {
+							double distance = MINIMUM_DISTANCE
+									* Math.pow(10, (double) d
+											/ DISTANCES_PER_DECADE);
+							Photo photo = new Photo(cameras[c],
+									FOCAL_LENGTHS[f], aperture
+											.calculateAperture(s), distance);
+
+							photo.setMetric(unit == 0);
+							calculations++;
+
+							photo.calculateAll(expected);
+
+							if (FixedPointCalculator
+									.calculateAll(photo, actual)) {
+								compare(expected, actual);
+							} else {
+								fallbacks++;
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void compare(DepthOfFieldResult expected, DepthOfFieldResult actual) {
+		add(0, expected.getHyperfocalDistance(), actual.getHyperfocalDistance());
+		add(1, expected.getHalfHyperfocalDistance(), actual
+				.getHalfHyperfocalDistance());
+		add(2, expected.getDepthOfFieldNearLimit(), actual
+				.getDepthOfFieldNearLimit());
+
+		boolean expectedInfinite = expected.getDepthOfFieldFarLimit() < 0;
+		boolean actualInfinite = actual.getDepthOfFieldFarLimit() < 0;
+
+		if (expectedInfinite != actualInfinite) {
+			infinityDisagreements++;
+		} else if (!expectedInfinite) {
+			add(3, expected.getDepthOfFieldFarLimit(), actual
+					.getDepthOfFieldFarLimit());
+			add(5, expected.getDepthOfFieldBehind(), actual
+					.getDepthOfFieldBehind());
+		}
+
+		add(4, expected.getDepthOfFieldBefore(), actual.getDepthOfFieldBefore());
+		add(6, expected.getMagnification(), actual.getMagnification());
+		add(7, expected.getFieldOfViewHorizontal(), actual
+				.getFieldOfViewHorizontal());
+		add(8, expected.getFieldOfViewVertical(), actual
+				.getFieldOfViewVertical());
+		add(9, expected.getFieldOfViewDiagonal(), actual
+				.getFieldOfViewDiagonal());
+		add(10, expected.getAngleOfViewHorizontal(), actual
+				.getAngleOfViewHorizontal());
+		add(11, expected.getAngleOfViewVertical(), actual
+				.getAngleOfViewVertical());
+		add(12, expected.getAngleOfViewDiagonal(), actual
+				.getAngleOfViewDiagonal());
+	}
+
+	private void add(int quantity, double expected, double actual) {
+		if (expected == 0) {
+			return;
+		}
+
+		double error = Math.abs((actual - expected) / expected);
+
+		maximumError[quantity] = Math.max(maximumError[quantity], error);
+		totalError[quantity] += error;
+		compared[quantity]++;
+	}
+
+	private void print() {
+		System.out.println(calculations + " calculations, " + fallbacks
+				+ " fell back to double, " + infinityDisagreements
+				+ " disagreed whether the far limit is infinite");
+		System.out.println(Benchmark.pad("value", 16)
+				+ Benchmark.pad("max error", 14) + "mean error");
+
+		for (int i = 0; i < NAMES.length; i++) {
+			double mean = compared[i] == 0 ? 0 : totalError[i] / compared[i];
+
+			System.out.println(Benchmark.pad(NAMES[i], 16)
+					+ Benchmark.pad(format(maximumError[i]), 14) + format(mean));
+		}
+	}
+
+	private static String format(double relativeError) {
+		return (Math.round(relativeError * 1e8) / 1e6) + "%";
+	}
+}
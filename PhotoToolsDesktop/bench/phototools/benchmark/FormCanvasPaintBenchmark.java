@@ -0,0 +1,111 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.benchmark;
+
+import javax.microedition.lcdui.ChoiceGroup;
+import javax.microedition.lcdui.Display;
+import javax.microedition.lcdui.Item;
+import javax.microedition.lcdui.Spacer;
+import javax.microedition.lcdui.StringItem;
+import javax.microedition.lcdui.TextField;
+import javax.microedition.midlet.MIDlet;
+
+import phototools.view.midlet.FormCanvas;
+import phototools.view.midlet.PhotoToolsForm;
+
+/**
+ * Time painting a full screen of a {@link FormCanvas} showing forms of 16,
+ * 100 and 1000 items, the mix of items being that of the calculator form.
+ * Runs against the headless stand-ins of javax.microedition, so the time is
+ * spent in FormCanvas rather than in rasterizing.
+ */
+public class FormCanvasPaintBenchmark {
+	private static final int[] SIZES = { 16, 100, 1000 };
+
+	/** Roughly how many items to lay out per measured round */
+	private static final int ITEMS_PER_ROUND = 2000000;
+
+	public static void main(String[] args) {
+		for (int i = 0; i < SIZES.length; i++) {
+			final BenchmarkCanvas canvas = new BenchmarkCanvas(
+					createForm(SIZES[i]));
+
+			Display.getDisplay(canvas.getMIDlet()).setCurrent(canvas);
+
+			new Benchmark("paint " + SIZES[i] + " items") {
+				protected double run(int operations) {
+					for (int j = 0; j < operations; j++) {
+						canvas.repaint();
+						canvas.serviceRepaints();
+					}
+
+					return canvas.getPaintCount();
+				}
+			}.report(Math.max(1, ITEMS_PER_ROUND / SIZES[i]));
+		}
+	}
+
+	/**
+	 * @return form of size items: inputs, then a spacer, then results
+	 */
+	private static PhotoToolsForm createForm(int size) {
+		Item[] items = new Item[size];
+
+		for (int i = 0; i < size; i++) {
+			switch (i % 16) {
+			case 0:
+			case 2:
+				items[i] = new TextField("Input " + i + ": ", String
+						.valueOf(i), 10, TextField.DECIMAL);
+				break;
+
+			case 1:
+				items[i] = new ChoiceGroup("Choice " + i + ": ",
+						ChoiceGroup.POPUP, new String[] { "One", "Two" }, null);
+				break;
+
+			case 3:
+				items[i] = new Spacer(0, 5);
+				break;
+
+			default:
+				items[i] = new StringItem("Result " + i + ": ", i + ".00 ft");
+				break;
+			}
+		}
+
+		return new PhotoToolsForm("Benchmark", items) {
+			protected void initialize() {
+
+			}
+		};
+	}
+
+	private static class BenchmarkCanvas extends FormCanvas {
+		BenchmarkCanvas(PhotoToolsForm form) {
+			super(new MIDlet() {
+				protected void startApp() {
+
+				}
+
+				protected void pauseApp() {
+
+				}
+
+				protected void destroyApp(boolean unconditional) {
+
+				}
+			});
+
+			setForm(form);
+		}
+
+		/**
+		 * @return the MIDlet running this canvas
+		 */
+		MIDlet getMIDlet() {
+			return getParent();
+		}
+	}
+}
@@ -0,0 +1,356 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import phototools.utility.MathUtility;
+
+/**
+ * Sweep every {@link MathUtility} function over random arguments and
+ * compare it with StrictMath, reporting the largest and mean error in units
+ * in the last place and the time per call of both. A function whose largest
+ * error exceeds its budget fails the run, which then exits with status 1, so
+ * a faster kernel can only be adopted if it stays within budget.
+ * 
+ * Arguments are name=value pairs: count=n sets the arguments per function,
+ * and a function name sets its budget in ulp, for example atan=1e8.
+ * 
+ * The atan family interpolates to an absolute error of 7.3e-10 radians,
+ * which is tens of millions of ulp of a small result, so its budgets are
+ * large and the largest absolute error is reported as well. The budget of
+ * pow allows for the 1 + |y * log(x)| ulp its documentation states.
+ */
+public class MathUtilityConformance {
+	private static final int DEFAULT_COUNT = 2000000;
+
+	/** Fixed, so every run sweeps the same arguments */
+	private static final long SEED = 2008;
+
+	/** Passes over the arguments when timing, of which the fastest counts */
+	private static final int TIMED_ROUNDS = 4;
+
+	private int count = DEFAULT_COUNT;
+
+	private final Function[] functions = {
+			new Function("atan", 5e7) {
+				void fill(Random random, double[] x, double[] y) {
+					for (int i = 0; i < x.length; i++) {
+						// half over the whole range, half near the origin
+						x[i] = (i & 1) == 0 ? Math.tan((random.nextDouble() - 0.5)
+								* Math.PI)
+								: (random.nextDouble() - 0.5) * 4;
+					}
+				}
+
+				double expected(double x, double y) {
+					return StrictMath.atan(x);
+				}
+
+				double actual(double x, double y) {
+					return MathUtility.atan(x);
+				}
+			}, new Function("atan2", 5e7) {
+				void fill(Random random, double[] x, double[] y) {
+					for (int i = 0; i < x.length; i++) {
+						x[i] = random.nextGaussian();
+						y[i] = random.nextGaussian();
+					}
+				}
+
+				double expected(double x, double y) {
+					return StrictMath.atan2(y, x);
+				}
+
+				double actual(double x, double y) {
+					return MathUtility.atan2(y, x);
+				}
+			}, new Function("asin", 5e7) {
+				void fill(Random random, double[] x, double[] y) {
+					fillUnit(random, x);
+				}
+
+				double expected(double x, double y) {
+					return StrictMath.asin(x);
+				}
+
+				double actual(double x, double y) {
+					return MathUtility.asin(x);
+				}
+			}, new Function("acos", 5e7) {
+				void fill(Random random, double[] x, double[] y) {
+					fillUnit(random, x);
+				}
+
+				double expected(double x, double y) {
+					return StrictMath.acos(x);
+				}
+
+				double actual(double x, double y) {
+					return MathUtility.acos(x);
+				}
+			}, new Function("exp", 1) {
+				void fill(Random random, double[] x, double[] y) {
+					for (int i = 0; i < x.length; i++) {
+						x[i] = -745 + random.nextDouble() * 1455;
+					}
+				}
+
+				double expected(double x, double y) {
+					return StrictMath.exp(x);
+				}
+
+				double actual(double x, double y) {
+					return MathUtility.exp(x);
+				}
+			}, new Function("log", 1) {
+				void fill(Random random, double[] x, double[] y) {
+					fillPositive(random, x);
+				}
+
+				double expected(double x, double y) {
+					return StrictMath.log(x);
+				}
+
+				double actual(double x, double y) {
+					return MathUtility.log(x);
+				}
+			}, new Function("log10", 4) {
+				void fill(Random random, double[] x, double[] y) {
+					fillPositive(random, x);
+				}
+
+				double expected(double x, double y) {
+					return StrictMath.log10(x);
+				}
+
+				double actual(double x, double y) {
+					return MathUtility.log10(x);
+				}
+			}, new Function("pow", 256) {
+				void fill(Random random, double[] x, double[] y) {
+					for (int i = 0; i < x.length; i++) {
+						x[i] = StrictMath.pow(10, (random.nextDouble() - 0.5) * 4);
+						y[i] = (random.nextDouble() - 0.5) * 40;
+
+						// half integer exponents, which are squared repeatedly
+						if ((i & 1) == 0) {
+							y[i] = Math.floor(y[i]);
+						}
+					}
+				}
+
+				double expected(double x, double y) {
+					return StrictMath.pow(x, y);
+				}
+
+				double actual(double x, double y) {
+					return MathUtility.pow(x, y);
+				}
+			} };
+
+	public static void main(String[] args) {
+		MathUtilityConformance conformance = new MathUtilityConformance();
+
+		conformance.configure(args);
+
+		if (!conformance.run()) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * @param args
+	 *            String[] name=value pairs
+	 */
+	private void configure(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			int separator = args[i].indexOf('=');
+
+			if (separator < 0) {
+				throw new IllegalArgumentException("expected name=value: "
+						+ args[i]);
+			}
+
+			String name = args[i].substring(0, separator);
+			String value = args[i].substring(separator + 1);
+
+			if ("count".equals(name)) {
+				count = Integer.parseInt(value);
+			} else {
+				find(name).budget = Double.parseDouble(value);
+			}
+		}
+	}
+
+	private Function find(String name) {
+		for (int i = 0; i < functions.length; i++) {
+			if (functions[i].name.equals(name)) {
+				return functions[i];
+			}
+		}
+
+		throw new IllegalArgumentException("no function " + name);
+	}
+
+	/**
+	 * @return boolean true if every function is within its budget
+	 */
+	private boolean run() {
+		Random random = new Random(SEED);
+		double[] x = new double[count];
+		double[] y = new double[count];
+		boolean passed = true;
+
+		System.out.println(count + " arguments per function");
+		System.out.println(Benchmark.pad("function", 10)
+				+ Benchmark.pad("max ulp", 14) + Benchmark.pad("mean ulp", 14)
+				+ Benchmark.pad("max absolute", 14)
+				+ Benchmark.pad("budget", 14) + Benchmark.pad("ns/op", 10)
+				+ Benchmark.pad("strict ns/op", 14) + "result");
+
+		for (int i = 0; i < functions.length; i++) {
+			Function function = functions[i];
+
+			Arrays.fill(y, 0);
+			function.fill(random, x, y);
+
+			double maximum = 0;
+			double total = 0;
+			double maximumAbsolute = 0;
+			int worst = 0;
+
+			for (int j = 0; j < count; j++) {
+				double expected = function.expected(x[j], y[j]);
+				double actual = function.actual(x[j], y[j]);
+				double error = ulps(expected, actual);
+
+				total += error;
+
+				if (error > 0 && error < Double.POSITIVE_INFINITY) {
+					maximumAbsolute = Math.max(maximumAbsolute, Math
+							.abs(actual - expected));
+				}
+
+				if (error > maximum) {
+					maximum = error;
+					worst = j;
+				}
+			}
+
+			boolean within = maximum <= function.budget;
+
+			System.out.println(Benchmark.pad(function.name, 10)
+					+ Benchmark.pad(format(maximum), 14)
+					+ Benchmark.pad(format(total / count), 14)
+					+ Benchmark.pad(String.valueOf((float) maximumAbsolute), 14)
+					+ Benchmark.pad(format(function.budget), 14)
+					+ Benchmark.format(function.time(x, y, false))
+					+ Benchmark.pad(Benchmark.format(function.time(x, y, true)),
+							14) + (within ? "pass" : "FAIL"));
+
+			if (!within) {
+				System.out.println("  worst arguments x = " + x[worst]
+						+ ", y = " + y[worst]);
+				passed = false;
+			}
+		}
+
+		return passed;
+	}
+
+	/**
+	 * @return double |actual - expected| in units in the last place of
+	 *         expected; 0 if both are the same NaN or infinity, and infinite
+	 *         if only one is
+	 */
+	static double ulps(double expected, double actual) {
+		if (expected != expected || actual != actual) {
+			return expected != expected && actual != actual ? 0
+					: Double.POSITIVE_INFINITY;
+		}
+
+		if (Double.isInfinite(expected) || Double.isInfinite(actual)) {
+			return expected == actual ? 0 : Double.POSITIVE_INFINITY;
+		}
+
+		return Math.abs(actual - expected) / Math.ulp(expected);
+	}
+
+	private static void fillUnit(Random random, double[] x) {
+		for (int i = 0; i < x.length; i++) {
+			x[i] = random.nextDouble() * 2 - 1;
+		}
+	}
+
+	private static void fillPositive(Random random, double[] x) {
+		for (int i = 0; i < x.length; i++) {
+			x[i] = StrictMath.pow(10, (random.nextDouble() - 0.5) * 600);
+		}
+	}
+
+	private static String format(double ulps) {
+		if (ulps >= 1e6) {
+			// 1.23e7 rather than a long row of digits
+			int exponent = (int) Math.floor(Math.log10(ulps));
+
+			return Math.round(ulps / Math.pow(10, exponent - 2)) / 100D + "e"
+					+ exponent;
+		}
+
+		return String.valueOf(Math.round(ulps * 1000) / 1000D);
+	}
+
+	/**
+	 * A function under test, its StrictMath reference and its budget.
+	 */
+	private static abstract class Function {
+		final String name;
+
+		/** Largest allowed error in ulp */
+		double budget;
+
+		private double sink;
+
+		Function(String name, double budget) {
+			this.name = name;
+			this.budget = budget;
+		}
+
+		/**
+		 * Fill the arguments; y is only used by functions of two arguments.
+		 */
+		abstract void fill(Random random, double[] x, double[] y);
+
+		abstract double expected(double x, double y);
+
+		abstract double actual(double x, double y);
+
+		/**
+		 * @param strict
+		 *            boolean time the StrictMath reference instead
+		 * @return double nanoseconds per call of the fastest pass over the
+		 *         arguments, including one virtual call either way
+		 */
+		double time(double[] x, double[] y, boolean strict) {
+			double best = Double.MAX_VALUE;
+
+			for (int round = 0; round < TIMED_ROUNDS; round++) {
+				long start = System.nanoTime();
+				double sum = 0;
+
+				for (int i = 0; i < x.length; i++) {
+					sum += strict ? expected(x[i], y[i]) : actual(x[i], y[i]);
+				}
+
+				best = Math.min(best, (double) (System.nanoTime() - start)
+						/ x.length);
+				sink += sum;
+			}
+
+			return best;
+		}
+	}
+}
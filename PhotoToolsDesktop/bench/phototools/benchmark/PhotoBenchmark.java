@@ -0,0 +1,111 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.benchmark;
+
+import phototools.Camera;
+import phototools.DepthOfFieldResult;
+import phototools.Photo;
+
+/**
+ * Compare reading derived values from a {@link Photo} whose inputs have not
+ * changed, which is served from its cache, against reading them right after
+ * a setter invalidated them, which is what every read cost before the cache.
+ */
+public class PhotoBenchmark {
+	private static final int OPERATIONS = 1000000;
+
+	public static void main(String[] args) {
+		final Photo photo = new Photo(new Camera(), 50, 5.6, 10);
+		final DepthOfFieldResult result = new DepthOfFieldResult();
+
+		new Benchmark("hyperfocal, recalculated every read") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					photo.setFocalLength(50 + (i & 1));
+					sum += photo.calculateHyperfocalDistance();
+				}
+
+				return sum;
+			}
+		}.report(OPERATIONS);
+
+		new Benchmark("hyperfocal, cached") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					sum += photo.calculateHyperfocalDistance();
+				}
+
+				return sum;
+			}
+		}.report(OPERATIONS);
+
+		new Benchmark("angle of view, recalculated every read") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					photo.setFocalLength(50 + (i & 1));
+					sum += photo.calculateAngleOfViewHorizontal();
+				}
+
+				return sum;
+			}
+		}.report(OPERATIONS);
+
+		new Benchmark("angle of view, cached") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					sum += photo.calculateAngleOfViewHorizontal();
+				}
+
+				return sum;
+			}
+		}.report(OPERATIONS);
+
+		new Benchmark("angle of view, after focus distance change") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					photo.setFocusDistance(10 + (i & 1));
+					sum += photo.calculateAngleOfViewHorizontal()
+							+ photo.calculateHyperfocalDistance();
+				}
+
+				return sum;
+			}
+		}.report(OPERATIONS);
+
+		new Benchmark("calculateAll, recalculated every read") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					photo.setFocalLength(50 + (i & 1));
+					sum += photo.calculateAll(result).getDepthOfFieldNearLimit();
+				}
+
+				return sum;
+			}
+		}.report(OPERATIONS);
+
+		new Benchmark("calculateAll, cached") {
+			protected double run(int operations) {
+				double sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+					sum += photo.calculateAll(result).getDepthOfFieldNearLimit();
+				}
+
+				return sum;
+			}
+		}.report(OPERATIONS);
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.benchmark;
+
+import javax.microedition.lcdui.Canvas;
+import javax.microedition.lcdui.Command;
+import javax.microedition.lcdui.Display;
+import javax.microedition.lcdui.Font;
+import javax.microedition.lcdui.Graphics;
+import javax.microedition.midlet.MIDletStateChangeException;
+
+import phototools.view.midlet.PhotoToolsMIDlet;
+
+/**
+ * Script key presses into the calculator as a user would and report, for
+ * each script, frames per second, draw calls, font calls and bytes allocated
+ * per frame. Runs against the headless stand-ins of javax.microedition, whose
+ * {@link Graphics} records calls instead of rasterizing, so the frame rate is
+ * that of the application code alone and the call counts are exact.
+ * 
+ * Allocations are counted by {@link Benchmark#getAllocatedBytes()} and are
+ * only reported where the JVM supports it.
+ */
+public class PhotoToolsCanvasBenchmark {
+	private static final int UP = -1;
+	private static final int DOWN = -2;
+	private static final int LEFT = -3;
+	private static final int RIGHT = -4;
+
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int MEASURED_ROUNDS = 5;
+
+	/** Times each script is run per round */
+	private static final int REPEATS = 2000;
+
+	private PhotoToolsMIDlet midlet;
+	private Display display;
+	private Canvas canvas;
+
+	public static void main(String[] args) throws MIDletStateChangeException {
+		PhotoToolsCanvasBenchmark benchmark = new PhotoToolsCanvasBenchmark();
+
+		System.out.println(Benchmark.pad("script", 24)
+				+ Benchmark.pad("fps", 14) + Benchmark.pad("draws/frame", 14)
+				+ Benchmark.pad("fonts/frame", 14) + "bytes/frame");
+
+		// from the focal length to the focus distance and back
+		benchmark.report("move selection", new int[] { DOWN, DOWN, UP, UP });
+
+		// step the aperture up and back down
+		benchmark.report("change aperture", new int[] { DOWN, RIGHT, RIGHT,
+				LEFT, LEFT, UP });
+
+		// type a digit into the focus distance and delete it again
+		benchmark.report("type focus distance", new int[] { DOWN, DOWN,
+				Canvas.KEY_NUM5, 0, UP, UP });
+
+		benchmark.midlet.destroy();
+	}
+
+	private PhotoToolsCanvasBenchmark() throws MIDletStateChangeException {
+		midlet = new PhotoToolsMIDlet();
+		midlet.start();
+		display = Display.getDisplay(midlet);
+		canvas = (Canvas) display.getCurrent();
+		canvas.serviceRepaints();
+	}
+
+	/**
+	 * Run the script in warm up and measured rounds and print one line for
+	 * the fastest measured round.
+	 * 
+	 * @param name
+	 *            String name of the script
+	 * @param keys
+	 *            int[] key codes to press, 0 fires the Clear command
+	 */
+	private void report(String name, int[] keys) {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			run(keys);
+		}
+
+		boolean allocations = Benchmark.getAllocatedBytes() >= 0;
+		double bestNanoseconds = Double.MAX_VALUE;
+		int frames = 0;
+		int draws = 0;
+		int fonts = 0;
+		long bytes = 0;
+
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			Graphics.resetCounters();
+			Font.resetCounters();
+
+			int startFrame = canvas.getFrameCount();
+			long startBytes = Benchmark.getAllocatedBytes();
+			long start = System.nanoTime();
+
+			run(keys);
+
+			long elapsed = System.nanoTime() - start;
+
+			frames = canvas.getFrameCount() - startFrame;
+			bytes = Benchmark.getAllocatedBytes() - startBytes;
+			draws = Graphics.getDrawCallCount();
+			fonts = Graphics.getSetFontCount() + Font.getMetricCount();
+			bestNanoseconds = Math.min(bestNanoseconds, (double) elapsed
+					/ frames);
+		}
+
+		System.out.println(Benchmark.pad(name, 24)
+				+ Benchmark.pad(Benchmark.format(1e9 / bestNanoseconds), 14)
+				+ Benchmark.pad(Benchmark.format((double) draws / frames), 14)
+				+ Benchmark.pad(Benchmark.format((double) fonts / frames), 14)
+				+ (allocations ? Benchmark.format((double) bytes / frames)
+						: "n/a"));
+	}
+
+	private void run(int[] keys) {
+		for (int i = 0; i < REPEATS; i++) {
+			for (int j = 0; j < keys.length; j++) {
+				if (keys[j] == 0) {
+					display.fireCommand(findCommand("Clear"));
+				} else {
+					display.pressKey(keys[j]);
+				}
+			}
+		}
+	}
+
+	private Command findCommand(String label) {
+		Command[] commands = canvas.getCommands();
+
+		for (int i = 0; i < commands.length; i++) {
+			if (label.equals(commands[i].getLabel())) {
+				return commands[i];
+			}
+		}
+
+		throw new IllegalStateException("no " + label + " command");
+	}
+}
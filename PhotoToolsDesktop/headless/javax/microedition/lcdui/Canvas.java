@@ -0,0 +1,209 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP Canvas. Repaint requests are coalesced into
+ * a single pending rectangle which {@link #serviceRepaints()} paints through
+ * a clipped recording {@link Graphics}. The Graphics is reused from frame to
+ * frame, so it does not count as an allocation of the application.
+ */
+public abstract class Canvas extends Displayable {
+	public static final int UP = 1;
+	public static final int DOWN = 6;
+	public static final int LEFT = 2;
+	public static final int RIGHT = 5;
+	public static final int FIRE = 8;
+	public static final int GAME_A = 9;
+	public static final int GAME_B = 10;
+	public static final int GAME_C = 11;
+	public static final int GAME_D = 12;
+
+	public static final int KEY_NUM0 = 48;
+	public static final int KEY_NUM1 = 49;
+	public static final int KEY_NUM2 = 50;
+	public static final int KEY_NUM3 = 51;
+	public static final int KEY_NUM4 = 52;
+	public static final int KEY_NUM5 = 53;
+	public static final int KEY_NUM6 = 54;
+	public static final int KEY_NUM7 = 55;
+	public static final int KEY_NUM8 = 56;
+	public static final int KEY_NUM9 = 57;
+	public static final int KEY_STAR = 42;
+	public static final int KEY_POUND = 35;
+
+	private boolean repaintPending;
+	private int repaintLeft;
+	private int repaintTop;
+	private int repaintRight;
+	private int repaintBottom;
+	private int frameCount;
+
+	/** Reused for every frame while the size does not change */
+	private Graphics graphics;
+
+	protected Canvas() {
+		super();
+	}
+
+	public int getGameAction(int keyCode) {
+		switch (keyCode) {
+		case -1:
+			return UP;
+		case -2:
+			return DOWN;
+		case -3:
+			return LEFT;
+		case -4:
+			return RIGHT;
+		case -5:
+			return FIRE;
+		default:
+			return 0;
+		}
+	}
+
+	public int getKeyCode(int gameAction) {
+		switch (gameAction) {
+		case UP:
+			return -1;
+		case DOWN:
+			return -2;
+		case LEFT:
+			return -3;
+		case RIGHT:
+			return -4;
+		case FIRE:
+			return -5;
+		default:
+			throw new IllegalArgumentException();
+		}
+	}
+
+	public String getKeyName(int keyCode) {
+		return String.valueOf(keyCode);
+	}
+
+	public boolean hasPointerEvents() {
+		return false;
+	}
+
+	public boolean hasRepeatEvents() {
+		return true;
+	}
+
+	public boolean isDoubleBuffered() {
+		return true;
+	}
+
+	public void setFullScreenMode(boolean mode) {
+
+	}
+
+	protected void keyPressed(int keyCode) {
+
+	}
+
+	protected void keyRepeated(int keyCode) {
+
+	}
+
+	protected void keyReleased(int keyCode) {
+
+	}
+
+	protected void showNotify() {
+
+	}
+
+	protected void hideNotify() {
+
+	}
+
+	protected abstract void paint(Graphics g);
+
+	public final void repaint() {
+		repaint(0, 0, getWidth(), getHeight());
+	}
+
+	public final void repaint(int x, int y, int width, int height) {
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+
+		if (!repaintPending) {
+			repaintLeft = x;
+			repaintTop = y;
+			repaintRight = x + width;
+			repaintBottom = y + height;
+			repaintPending = true;
+		} else {
+			repaintLeft = Math.min(repaintLeft, x);
+			repaintTop = Math.min(repaintTop, y);
+			repaintRight = Math.max(repaintRight, x + width);
+			repaintBottom = Math.max(repaintBottom, y + height);
+		}
+	}
+
+	/**
+	 * Paint the pending repaint region, if any, immediately.
+	 */
+	public final void serviceRepaints() {
+		if (repaintPending) {
+			repaintPending = false;
+
+			if (graphics == null || !graphics.hasSize(getWidth(), getHeight())) {
+				graphics = new Graphics(getWidth(), getHeight());
+			}
+
+			graphics.reset(repaintLeft, repaintTop, repaintRight
+					- repaintLeft, repaintBottom - repaintTop);
+			frameCount++;
+			paint(graphics);
+		}
+	}
+
+	/**
+	 * @return number of frames painted by {@link #serviceRepaints()}, not part
+	 *         of MIDP
+	 */
+	public final int getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * @return true if a repaint has been requested but not serviced, not part
+	 *         of MIDP
+	 */
+	public final boolean isRepaintPending() {
+		return repaintPending;
+	}
+
+	/**
+	 * @return the height of the pending repaint region, not part of MIDP
+	 */
+	public final int getRepaintHeight() {
+		return repaintPending ? repaintBottom - repaintTop : 0;
+	}
+
+	void dispatchKeyPressed(int keyCode) {
+		keyPressed(keyCode);
+	}
+
+	void dispatchKeyRepeated(int keyCode) {
+		keyRepeated(keyCode);
+	}
+
+	void dispatchKeyReleased(int keyCode) {
+		keyReleased(keyCode);
+	}
+
+	void dispatchShowNotify() {
+		showNotify();
+	}
+
+	void dispatchSizeChanged(int w, int h) {
+		sizeChanged(w, h);
+	}
+}
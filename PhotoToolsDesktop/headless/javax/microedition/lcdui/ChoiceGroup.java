@@ -0,0 +1,128 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+import java.util.Vector;
+
+/**
+ * Headless stand-in for the MIDP ChoiceGroup, single selection only.
+ */
+public class ChoiceGroup extends Item implements Choice {
+	private Vector strings = new Vector();
+	private Vector images = new Vector();
+	private int choiceType;
+	private int selectedIndex = -1;
+
+	public ChoiceGroup(String label, int choiceType) {
+		this(label, choiceType, new String[0], null);
+	}
+
+	public ChoiceGroup(String label, int choiceType, String[] stringElements,
+			Image[] imageElements) {
+		super(label);
+		this.choiceType = choiceType;
+
+		for (int i = 0; i < stringElements.length; i++) {
+			append(stringElements[i], imageElements == null ? null
+					: imageElements[i]);
+		}
+	}
+
+	public int size() {
+		return strings.size();
+	}
+
+	public String getString(int elementNum) {
+		return (String) strings.elementAt(elementNum);
+	}
+
+	public Image getImage(int elementNum) {
+		return (Image) images.elementAt(elementNum);
+	}
+
+	public int append(String stringPart, Image imagePart) {
+		if (stringPart == null) {
+			throw new NullPointerException();
+		}
+
+		strings.addElement(stringPart);
+		images.addElement(imagePart);
+
+		if (selectedIndex == -1) {
+			selectedIndex = 0;
+		}
+
+		return strings.size() - 1;
+	}
+
+	public void insert(int elementNum, String stringPart, Image imagePart) {
+		strings.insertElementAt(stringPart, elementNum);
+		images.insertElementAt(imagePart, elementNum);
+
+		if (selectedIndex == -1) {
+			selectedIndex = 0;
+		}
+	}
+
+	public void delete(int elementNum) {
+		strings.removeElementAt(elementNum);
+		images.removeElementAt(elementNum);
+
+		if (strings.isEmpty()) {
+			selectedIndex = -1;
+		} else if (selectedIndex >= strings.size()) {
+			selectedIndex = strings.size() - 1;
+		}
+	}
+
+	public void deleteAll() {
+		strings.removeAllElements();
+		images.removeAllElements();
+		selectedIndex = -1;
+	}
+
+	public void set(int elementNum, String stringPart, Image imagePart) {
+		strings.setElementAt(stringPart, elementNum);
+		images.setElementAt(imagePart, elementNum);
+	}
+
+	public boolean isSelected(int elementNum) {
+		return elementNum == selectedIndex;
+	}
+
+	public int getSelectedIndex() {
+		return selectedIndex;
+	}
+
+	public int getSelectedFlags(boolean[] selectedArray) {
+		for (int i = 0; i < selectedArray.length; i++) {
+			selectedArray[i] = i == selectedIndex;
+		}
+
+		return selectedIndex == -1 ? 0 : 1;
+	}
+
+	public void setSelectedIndex(int elementNum, boolean selected) {
+		if (elementNum < 0 || elementNum >= size()) {
+			throw new IndexOutOfBoundsException(String.valueOf(elementNum));
+		}
+
+		if (selected) {
+			selectedIndex = elementNum;
+		}
+	}
+
+	public void setSelectedFlags(boolean[] selectedArray) {
+		for (int i = 0; i < selectedArray.length; i++) {
+			if (selectedArray[i]) {
+				selectedIndex = i;
+				return;
+			}
+		}
+	}
+
+	public int getChoiceType() {
+		return choiceType;
+	}
+}
@@ -0,0 +1,11 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP CommandListener.
+ */
+public interface CommandListener {
+	void commandAction(Command c, Displayable d);
+}
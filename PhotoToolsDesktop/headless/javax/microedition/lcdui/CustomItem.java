@@ -0,0 +1,75 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP CustomItem.
+ */
+public abstract class CustomItem extends Item {
+	protected static final int TRAVERSE_HORIZONTAL = 1;
+	protected static final int TRAVERSE_VERTICAL = 2;
+	protected static final int KEY_PRESS = 4;
+	protected static final int KEY_RELEASE = 8;
+	protected static final int KEY_REPEAT = 0x10;
+	protected static final int NONE = 0;
+
+	protected CustomItem(String label) {
+		super(label);
+	}
+
+	protected abstract int getMinContentWidth();
+
+	protected abstract int getMinContentHeight();
+
+	protected abstract int getPrefContentWidth(int height);
+
+	protected abstract int getPrefContentHeight(int width);
+
+	protected abstract void paint(Graphics g, int w, int h);
+
+	public int getGameAction(int keyCode) {
+		return 0;
+	}
+
+	protected final int getInteractionModes() {
+		return KEY_PRESS | KEY_RELEASE | KEY_REPEAT | TRAVERSE_HORIZONTAL
+				| TRAVERSE_VERTICAL;
+	}
+
+	protected final void invalidate() {
+
+	}
+
+	protected final void repaint() {
+
+	}
+
+	protected final void repaint(int x, int y, int w, int h) {
+
+	}
+
+	protected void keyPressed(int keyCode) {
+
+	}
+
+	protected void keyReleased(int keyCode) {
+
+	}
+
+	protected void keyRepeated(int keyCode) {
+
+	}
+
+	protected void showNotify() {
+
+	}
+
+	protected void hideNotify() {
+
+	}
+
+	protected void sizeChanged(int w, int h) {
+
+	}
+}
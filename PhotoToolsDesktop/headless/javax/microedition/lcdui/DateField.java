@@ -0,0 +1,39 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+import java.util.Date;
+
+/**
+ * Headless stand-in for the MIDP DateField.
+ */
+public class DateField extends Item {
+	public static final int DATE = 1;
+	public static final int TIME = 2;
+	public static final int DATE_TIME = 3;
+
+	private int mode;
+	private Date date;
+
+	public DateField(String label, int mode) {
+		super(label);
+		this.mode = mode;
+	}
+
+	public Date getDate() {
+		return date;
+	}
+
+	public void setDate(Date date) {
+		this.date = date;
+	}
+
+	public int getInputMode() {
+		return mode;
+	}
+
+	public void setInputMode(int mode) {
+		this.mode = mode;
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+import java.util.Hashtable;
+
+import javax.microedition.midlet.MIDlet;
+
+/**
+ * Headless stand-in for the MIDP Display. Besides the MIDP methods it lets a
+ * desktop driver script key presses, commands and screen size changes into
+ * the current {@link Canvas}; each scripted event services pending repaints
+ * the way a real event loop would.
+ */
+public class Display {
+	private static final Hashtable DISPLAYS = new Hashtable();
+
+	private static int screenWidth = 176;
+	private static int screenHeight = 208;
+	private static Displayable shown;
+
+	private Displayable current;
+
+	private Display() {
+		super();
+	}
+
+	public static synchronized Display getDisplay(MIDlet m) {
+		Display display = (Display) DISPLAYS.get(m);
+
+		if (display == null) {
+			display = new Display();
+			DISPLAYS.put(m, display);
+		}
+
+		return display;
+	}
+
+	public static int getScreenWidth() {
+		return screenWidth;
+	}
+
+	public static int getScreenHeight() {
+		return screenHeight;
+	}
+
+	static boolean isCurrent(Displayable displayable) {
+		return shown == displayable;
+	}
+
+	public Displayable getCurrent() {
+		return current;
+	}
+
+	public void setCurrent(Displayable nextDisplayable) {
+		this.current = nextDisplayable;
+		shown = nextDisplayable;
+
+		if (nextDisplayable instanceof Canvas) {
+			Canvas canvas = (Canvas) nextDisplayable;
+			canvas.dispatchShowNotify();
+			canvas.repaint();
+			canvas.serviceRepaints();
+		}
+	}
+
+	public void callSerially(Runnable r) {
+		r.run();
+	}
+
+	public boolean isColor() {
+		return true;
+	}
+
+	public int numColors() {
+		return 1 << 16;
+	}
+
+	/**
+	 * Change the screen size and notify the current {@link Canvas}, not part
+	 * of MIDP.
+	 */
+	public void setScreenSize(int width, int height) {
+		screenWidth = width;
+		screenHeight = height;
+
+		if (current instanceof Canvas) {
+			Canvas canvas = (Canvas) current;
+			canvas.dispatchSizeChanged(width, height);
+			canvas.repaint();
+			canvas.serviceRepaints();
+		}
+	}
+
+	/**
+	 * Press the given key on the current {@link Canvas}, not part of MIDP.
+	 */
+	public void pressKey(int keyCode) {
+		if (current instanceof Canvas) {
+			Canvas canvas = (Canvas) current;
+			canvas.dispatchKeyPressed(keyCode);
+			canvas.dispatchKeyReleased(keyCode);
+			canvas.serviceRepaints();
+		}
+	}
+
+	/**
+	 * Repeat the given key on the current {@link Canvas}, not part of MIDP.
+	 */
+	public void repeatKey(int keyCode) {
+		if (current instanceof Canvas) {
+			Canvas canvas = (Canvas) current;
+			canvas.dispatchKeyRepeated(keyCode);
+			canvas.serviceRepaints();
+		}
+	}
+
+	/**
+	 * Fire a command at the current {@link Displayable}, not part of MIDP.
+	 */
+	public void fireCommand(Command command) {
+		if (current != null) {
+			current.fireCommand(command);
+
+			if (current instanceof Canvas) {
+				((Canvas) current).serviceRepaints();
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+import java.util.Vector;
+
+/**
+ * Headless stand-in for the MIDP Displayable. The screen size is taken from
+ * {@link Display#getScreenWidth()} and {@link Display#getScreenHeight()}.
+ */
+public abstract class Displayable {
+	private String title;
+	private Ticker ticker;
+	private Vector commands = new Vector();
+	private CommandListener commandListener;
+
+	Displayable() {
+		super();
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String s) {
+		this.title = s;
+	}
+
+	public Ticker getTicker() {
+		return ticker;
+	}
+
+	public void setTicker(Ticker ticker) {
+		this.ticker = ticker;
+	}
+
+	public boolean isShown() {
+		return Display.isCurrent(this);
+	}
+
+	public void addCommand(Command cmd) {
+		if (!commands.contains(cmd)) {
+			commands.addElement(cmd);
+		}
+	}
+
+	public void removeCommand(Command cmd) {
+		commands.removeElement(cmd);
+	}
+
+	public void setCommandListener(CommandListener l) {
+		this.commandListener = l;
+	}
+
+	public int getWidth() {
+		return Display.getScreenWidth();
+	}
+
+	public int getHeight() {
+		return Display.getScreenHeight();
+	}
+
+	protected void sizeChanged(int w, int h) {
+
+	}
+
+	/**
+	 * @return the commands currently added, not part of MIDP
+	 */
+	public Command[] getCommands() {
+		Command[] result = new Command[commands.size()];
+		commands.copyInto(result);
+
+		return result;
+	}
+
+	/**
+	 * Fire the given command at the registered listener, not part of MIDP.
+	 */
+	public void fireCommand(Command command) {
+		if (commandListener != null) {
+			commandListener.commandAction(command, this);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP Font with fixed metrics: every character is
+ * {@link #getCharWidth()} pixels wide. Metric queries are counted so
+ * benchmarks can report font work per frame.
+ */
+public final class Font {
+	public static final int FACE_SYSTEM = 0;
+	public static final int FACE_MONOSPACE = 32;
+	public static final int FACE_PROPORTIONAL = 64;
+	public static final int STYLE_PLAIN = 0;
+	public static final int STYLE_BOLD = 1;
+	public static final int STYLE_ITALIC = 2;
+	public static final int STYLE_UNDERLINED = 4;
+	public static final int SIZE_SMALL = 8;
+	public static final int SIZE_MEDIUM = 0;
+	public static final int SIZE_LARGE = 16;
+
+	/** Every face, style and size combination */
+	private static final Font[] FONTS = new Font[3 * 8 * 3];
+
+	private static int metricCount;
+
+	private int face;
+	private int style;
+	private int size;
+
+	private Font(int face, int style, int size) {
+		this.face = face;
+		this.style = style;
+		this.size = size;
+	}
+
+	public static Font getDefaultFont() {
+		return getFont(FACE_SYSTEM, STYLE_PLAIN, SIZE_MEDIUM);
+	}
+
+	/**
+	 * Fonts are shared, as on a device, so asking for one does not allocate.
+	 */
+	public static synchronized Font getFont(int face, int style, int size) {
+		int index = ((face / FACE_MONOSPACE) * 8 + (style & 7)) * 3 + size
+				/ SIZE_SMALL;
+
+		if (FONTS[index] == null) {
+			FONTS[index] = new Font(face, style, size);
+		}
+
+		return FONTS[index];
+	}
+
+	public static int getMetricCount() {
+		return metricCount;
+	}
+
+	public static void resetCounters() {
+		metricCount = 0;
+	}
+
+	public int getFace() {
+		return face;
+	}
+
+	public int getStyle() {
+		return style;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public boolean isBold() {
+		return (style & STYLE_BOLD) != 0;
+	}
+
+	public int getHeight() {
+		metricCount++;
+
+		switch (size) {
+		case SIZE_SMALL:
+			return 12;
+		case SIZE_LARGE:
+			return 18;
+		default:
+			return 14;
+		}
+	}
+
+	public int getBaselinePosition() {
+		return getHeight() - 2;
+	}
+
+	public int getCharWidth() {
+		return isBold() ? 7 : 6;
+	}
+
+	public int charWidth(char ch) {
+		metricCount++;
+		return getCharWidth();
+	}
+
+	public int stringWidth(String str) {
+		metricCount++;
+		return str.length() * getCharWidth();
+	}
+
+	public int substringWidth(String str, int offset, int len) {
+		metricCount++;
+		return len * getCharWidth();
+	}
+}
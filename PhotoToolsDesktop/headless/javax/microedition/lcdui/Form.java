@@ -0,0 +1,89 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+import java.util.Vector;
+
+/**
+ * Headless stand-in for the MIDP Form.
+ */
+public class Form extends Screen {
+	private Vector items = new Vector();
+	private ItemStateListener itemStateListener;
+
+	public Form(String title) {
+		setTitle(title);
+	}
+
+	public Form(String title, Item[] items) {
+		this(title);
+
+		if (items != null) {
+			for (int i = 0; i < items.length; i++) {
+				append(items[i]);
+			}
+		}
+	}
+
+	public int append(Item item) {
+		if (item.getOwner() != null) {
+			throw new IllegalStateException();
+		}
+
+		item.setOwner(this);
+		items.addElement(item);
+
+		return items.size() - 1;
+	}
+
+	public int append(String str) {
+		return append(new StringItem(null, str));
+	}
+
+	public int append(Image img) {
+		return append(new ImageItem(null, img, ImageItem.LAYOUT_DEFAULT, null));
+	}
+
+	public void insert(int itemNum, Item item) {
+		item.setOwner(this);
+		items.insertElementAt(item, itemNum);
+	}
+
+	public void set(int itemNum, Item item) {
+		get(itemNum).setOwner(null);
+		item.setOwner(this);
+		items.setElementAt(item, itemNum);
+	}
+
+	public void delete(int itemNum) {
+		get(itemNum).setOwner(null);
+		items.removeElementAt(itemNum);
+	}
+
+	public void deleteAll() {
+		for (int i = 0; i < items.size(); i++) {
+			get(i).setOwner(null);
+		}
+
+		items.removeAllElements();
+	}
+
+	public Item get(int itemNum) {
+		return (Item) items.elementAt(itemNum);
+	}
+
+	public int size() {
+		return items.size();
+	}
+
+	public void setItemStateListener(ItemStateListener iListener) {
+		this.itemStateListener = iListener;
+	}
+
+	void fireItemStateChanged(Item item) {
+		if (itemStateListener != null) {
+			itemStateListener.itemStateChanged(item);
+		}
+	}
+}
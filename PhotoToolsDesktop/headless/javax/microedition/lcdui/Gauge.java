@@ -0,0 +1,41 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP Gauge.
+ */
+public class Gauge extends Item {
+	private boolean interactive;
+	private int maxValue;
+	private int value;
+
+	public Gauge(String label, boolean interactive, int maxValue,
+			int initialValue) {
+		super(label);
+		this.interactive = interactive;
+		this.maxValue = maxValue;
+		this.value = initialValue;
+	}
+
+	public boolean isInteractive() {
+		return interactive;
+	}
+
+	public int getMaxValue() {
+		return maxValue;
+	}
+
+	public void setMaxValue(int maxValue) {
+		this.maxValue = maxValue;
+	}
+
+	public int getValue() {
+		return value;
+	}
+
+	public void setValue(int value) {
+		this.value = value;
+	}
+}
@@ -0,0 +1,291 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+import java.util.Hashtable;
+
+/**
+ * Headless, recording stand-in for the MIDP Graphics. Nothing is rasterized;
+ * every drawing call is counted instead so benchmarks can report draw calls
+ * per frame. Calls entirely outside the clip are still counted, just as a
+ * real implementation still pays for the call.
+ */
+public class Graphics {
+	public static final int HCENTER = 1;
+	public static final int VCENTER = 2;
+	public static final int LEFT = 4;
+	public static final int RIGHT = 8;
+	public static final int TOP = 16;
+	public static final int BOTTOM = 32;
+	public static final int BASELINE = 64;
+	public static final int SOLID = 0;
+	public static final int DOTTED = 1;
+
+	private static int drawStringCount;
+	private static int fillRectCount;
+	private static int drawRectCount;
+	private static int fillTriangleCount;
+	private static int drawLineCount;
+	private static int drawImageCount;
+	private static int setFontCount;
+	private static int setColorCount;
+	private static Hashtable drawStringColors = new Hashtable();
+
+	private int width;
+	private int height;
+	private int translateX;
+	private int translateY;
+	private int clipX;
+	private int clipY;
+	private int clipWidth;
+	private int clipHeight;
+	private int color;
+	private int strokeStyle;
+	private Font font;
+
+	Graphics(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.font = Font.getDefaultFont();
+		setClip(0, 0, width, height);
+	}
+
+	/**
+	 * Start a new frame on this screen sized Graphics, so the stand-in does
+	 * not allocate one per frame.
+	 */
+	void reset(int x, int y, int w, int h) {
+		translateX = 0;
+		translateY = 0;
+		color = 0;
+		strokeStyle = SOLID;
+		font = Font.getDefaultFont();
+		setClip(x, y, w, h);
+	}
+
+	/**
+	 * @return true if this Graphics paints an area of the given size
+	 */
+	boolean hasSize(int width, int height) {
+		return this.width == width && this.height == height;
+	}
+
+	public static void resetCounters() {
+		drawStringCount = 0;
+		fillRectCount = 0;
+		drawRectCount = 0;
+		fillTriangleCount = 0;
+		drawLineCount = 0;
+		drawImageCount = 0;
+		setFontCount = 0;
+		setColorCount = 0;
+		drawStringColors.clear();
+	}
+
+	public static int getDrawStringCount() {
+		return drawStringCount;
+	}
+
+	public static int getFillRectCount() {
+		return fillRectCount;
+	}
+
+	public static int getDrawRectCount() {
+		return drawRectCount;
+	}
+
+	public static int getFillTriangleCount() {
+		return fillTriangleCount;
+	}
+
+	public static int getDrawLineCount() {
+		return drawLineCount;
+	}
+
+	public static int getDrawImageCount() {
+		return drawImageCount;
+	}
+
+	public static int getSetFontCount() {
+		return setFontCount;
+	}
+
+	public static int getSetColorCount() {
+		return setColorCount;
+	}
+
+	/**
+	 * Not part of MIDP; lets tests check the color text was drawn in.
+	 * 
+	 * @return the color the given string was last drawn in since the
+	 *         counters were reset, or -1 if it was not drawn
+	 */
+	public static int getDrawStringColor(String str) {
+		Integer color = (Integer) drawStringColors.get(str);
+
+		return color == null ? -1 : color.intValue();
+	}
+
+	/**
+	 * @return the sum of all draw and fill calls
+	 */
+	public static int getDrawCallCount() {
+		return drawStringCount + fillRectCount + drawRectCount
+				+ fillTriangleCount + drawLineCount + drawImageCount;
+	}
+
+	public void translate(int x, int y) {
+		translateX += x;
+		translateY += y;
+		clipX -= x;
+		clipY -= y;
+	}
+
+	public int getTranslateX() {
+		return translateX;
+	}
+
+	public int getTranslateY() {
+		return translateY;
+	}
+
+	public int getColor() {
+		return color;
+	}
+
+	public void setColor(int red, int green, int blue) {
+		setColor((red << 16) | (green << 8) | blue);
+	}
+
+	public void setColor(int rgb) {
+		setColorCount++;
+		this.color = rgb & 0x00FFFFFF;
+	}
+
+	public void setGrayScale(int value) {
+		setColor(value, value, value);
+	}
+
+	public Font getFont() {
+		return font;
+	}
+
+	public void setFont(Font font) {
+		setFontCount++;
+		this.font = font == null ? Font.getDefaultFont() : font;
+	}
+
+	public int getStrokeStyle() {
+		return strokeStyle;
+	}
+
+	public void setStrokeStyle(int style) {
+		this.strokeStyle = style;
+	}
+
+	public int getClipX() {
+		return clipX;
+	}
+
+	public int getClipY() {
+		return clipY;
+	}
+
+	public int getClipWidth() {
+		return clipWidth;
+	}
+
+	public int getClipHeight() {
+		return clipHeight;
+	}
+
+	public void setClip(int x, int y, int w, int h) {
+		int left = Math.max(x + translateX, 0);
+		int top = Math.max(y + translateY, 0);
+		int right = Math.min(x + translateX + w, width);
+		int bottom = Math.min(y + translateY + h, height);
+
+		clipX = left - translateX;
+		clipY = top - translateY;
+		clipWidth = Math.max(right - left, 0);
+		clipHeight = Math.max(bottom - top, 0);
+	}
+
+	public void clipRect(int x, int y, int w, int h) {
+		int left = Math.max(x, clipX);
+		int top = Math.max(y, clipY);
+		int right = Math.min(x + w, clipX + clipWidth);
+		int bottom = Math.min(y + h, clipY + clipHeight);
+
+		clipX = left;
+		clipY = top;
+		clipWidth = Math.max(right - left, 0);
+		clipHeight = Math.max(bottom - top, 0);
+	}
+
+	public void drawLine(int x1, int y1, int x2, int y2) {
+		drawLineCount++;
+	}
+
+	public void fillRect(int x, int y, int w, int h) {
+		fillRectCount++;
+	}
+
+	public void drawRect(int x, int y, int w, int h) {
+		drawRectCount++;
+	}
+
+	public void drawRoundRect(int x, int y, int w, int h, int aw, int ah) {
+		drawRectCount++;
+	}
+
+	public void fillRoundRect(int x, int y, int w, int h, int aw, int ah) {
+		fillRectCount++;
+	}
+
+	public void fillTriangle(int x1, int y1, int x2, int y2, int x3, int y3) {
+		fillTriangleCount++;
+	}
+
+	public void drawString(String str, int x, int y, int anchor) {
+		if (str == null) {
+			throw new NullPointerException();
+		}
+
+		drawStringCount++;
+		drawStringColors.put(str, new Integer(color));
+	}
+
+	public void drawSubstring(String str, int offset, int len, int x, int y,
+			int anchor) {
+		drawStringCount++;
+	}
+
+	public void drawChar(char character, int x, int y, int anchor) {
+		drawStringCount++;
+	}
+
+	public void drawChars(char[] data, int offset, int length, int x, int y,
+			int anchor) {
+		drawStringCount++;
+	}
+
+	public void drawImage(Image img, int x, int y, int anchor) {
+		if (img == null) {
+			throw new NullPointerException();
+		}
+
+		drawImageCount++;
+	}
+
+	public void drawRegion(Image src, int xSrc, int ySrc, int width,
+			int height, int transform, int xDest, int yDest, int anchor) {
+		drawImageCount++;
+	}
+
+	public void drawRGB(int[] rgbData, int offset, int scanlength, int x,
+			int y, int width, int height, boolean processAlpha) {
+		drawImageCount++;
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+import java.io.IOException;
+
+/**
+ * Headless stand-in for the MIDP Image. Pixels are not stored; drawing onto a
+ * mutable image is only recorded by its {@link Graphics}.
+ */
+public class Image {
+	private static int createCount;
+
+	private int width;
+	private int height;
+	private boolean mutable;
+
+	private Image(int width, int height, boolean mutable) {
+		this.width = width;
+		this.height = height;
+		this.mutable = mutable;
+		createCount++;
+	}
+
+	public static Image createImage(int width, int height) {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException();
+		}
+
+		return new Image(width, height, true);
+	}
+
+	public static Image createImage(String name) throws IOException {
+		throw new IOException(name);
+	}
+
+	public static Image createImage(Image source) {
+		return new Image(source.getWidth(), source.getHeight(), false);
+	}
+
+	public static int getCreateCount() {
+		return createCount;
+	}
+
+	public static void resetCounters() {
+		createCount = 0;
+	}
+
+	public Graphics getGraphics() {
+		if (!mutable) {
+			throw new IllegalStateException();
+		}
+
+		return new Graphics(width, height);
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public boolean isMutable() {
+		return mutable;
+	}
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP ImageItem.
+ */
+public class ImageItem extends Item {
+	private Image image;
+	private String altText;
+
+	public ImageItem(String label, Image img, int layout, String altText) {
+		super(label);
+		this.image = img;
+		this.altText = altText;
+		setLayout(layout);
+	}
+
+	public Image getImage() {
+		return image;
+	}
+
+	public void setImage(Image img) {
+		this.image = img;
+	}
+
+	public String getAltText() {
+		return altText;
+	}
+
+	public void setAltText(String text) {
+		this.altText = text;
+	}
+}
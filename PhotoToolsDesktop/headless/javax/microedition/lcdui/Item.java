@@ -0,0 +1,96 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP Item.
+ */
+public abstract class Item {
+	public static final int LAYOUT_DEFAULT = 0;
+	public static final int LAYOUT_LEFT = 1;
+	public static final int LAYOUT_RIGHT = 2;
+	public static final int LAYOUT_CENTER = 3;
+	public static final int LAYOUT_TOP = 0x10;
+	public static final int LAYOUT_BOTTOM = 0x20;
+	public static final int LAYOUT_VCENTER = 0x30;
+	public static final int LAYOUT_NEWLINE_BEFORE = 0x100;
+	public static final int LAYOUT_NEWLINE_AFTER = 0x200;
+	public static final int PLAIN = 0;
+	public static final int HYPERLINK = 1;
+	public static final int BUTTON = 2;
+
+	private String label;
+	private int layout;
+	private Screen owner;
+
+	Item(String label) {
+		this.label = label;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public void setLabel(String label) {
+		this.label = label;
+	}
+
+	public int getLayout() {
+		return layout;
+	}
+
+	public void setLayout(int layout) {
+		this.layout = layout;
+	}
+
+	public int getMinimumWidth() {
+		return 0;
+	}
+
+	public int getMinimumHeight() {
+		return 0;
+	}
+
+	public int getPreferredWidth() {
+		return getMinimumWidth();
+	}
+
+	public int getPreferredHeight() {
+		return getMinimumHeight();
+	}
+
+	public void setPreferredSize(int width, int height) {
+
+	}
+
+	public void addCommand(Command cmd) {
+
+	}
+
+	public void removeCommand(Command cmd) {
+
+	}
+
+	public void setDefaultCommand(Command cmd) {
+
+	}
+
+	public void setItemCommandListener(Object l) {
+
+	}
+
+	public void notifyStateChanged() {
+		if (owner instanceof Form) {
+			((Form) owner).fireItemStateChanged(this);
+		}
+	}
+
+	Screen getOwner() {
+		return owner;
+	}
+
+	void setOwner(Screen owner) {
+		this.owner = owner;
+	}
+}
@@ -0,0 +1,11 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP ItemStateListener.
+ */
+public interface ItemStateListener {
+	void itemStateChanged(Item item);
+}
@@ -0,0 +1,13 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP Screen.
+ */
+public abstract class Screen extends Displayable {
+	Screen() {
+		super();
+	}
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP Spacer.
+ */
+public class Spacer extends Item {
+	private int minWidth;
+	private int minHeight;
+
+	public Spacer(int minWidth, int minHeight) {
+		super(null);
+		setMinimumSize(minWidth, minHeight);
+	}
+
+	public void setMinimumSize(int minWidth, int minHeight) {
+		this.minWidth = minWidth;
+		this.minHeight = minHeight;
+	}
+
+	public int getMinimumWidth() {
+		return minWidth;
+	}
+
+	public int getMinimumHeight() {
+		return minHeight;
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP StringItem. Calls to {@link #setText(String)}
+ * are counted, as they trigger a relayout on real implementations.
+ */
+public class StringItem extends Item {
+	private static int setTextCount;
+
+	private String text;
+	private int appearanceMode;
+	private Font font;
+
+	public StringItem(String label, String text) {
+		this(label, text, PLAIN);
+	}
+
+	public StringItem(String label, String text, int appearanceMode) {
+		super(label);
+		this.text = text;
+		this.appearanceMode = appearanceMode;
+	}
+
+	public static int getSetTextCount() {
+		return setTextCount;
+	}
+
+	public static void resetCounters() {
+		setTextCount = 0;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public void setText(String text) {
+		setTextCount++;
+		this.text = text;
+	}
+
+	public int getAppearanceMode() {
+		return appearanceMode;
+	}
+
+	public Font getFont() {
+		return font;
+	}
+
+	public void setFont(Font font) {
+		this.font = font;
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP TextField.
+ */
+public class TextField extends Item {
+	public static final int ANY = 0;
+	public static final int EMAILADDR = 1;
+	public static final int NUMERIC = 2;
+	public static final int PHONENUMBER = 3;
+	public static final int URL = 4;
+	public static final int DECIMAL = 5;
+	public static final int CONSTRAINT_MASK = 0xFFFF;
+	public static final int PASSWORD = 0x10000;
+
+	private StringBuffer buffer = new StringBuffer();
+	private int maxSize;
+	private int constraints;
+
+	public TextField(String label, String text, int maxSize, int constraints) {
+		super(label);
+		this.maxSize = maxSize;
+		this.constraints = constraints;
+		setString(text);
+	}
+
+	public String getString() {
+		return buffer.toString();
+	}
+
+	public int getChars(char[] data) {
+		buffer.getChars(0, buffer.length(), data, 0);
+		return buffer.length();
+	}
+
+	public void setString(String text) {
+		buffer.setLength(0);
+
+		if (text != null) {
+			if (text.length() > maxSize) {
+				throw new IllegalArgumentException();
+			}
+
+			buffer.append(text);
+		}
+	}
+
+	public void insert(String src, int position) {
+		if (buffer.length() + src.length() > maxSize) {
+			throw new IllegalArgumentException();
+		}
+
+		position = Math.max(0, Math.min(position, buffer.length()));
+		buffer.insert(position, src);
+	}
+
+	public void delete(int offset, int length) {
+		buffer.delete(offset, offset + length);
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		return maxSize;
+	}
+
+	public int size() {
+		return buffer.length();
+	}
+
+	public int getCaretPosition() {
+		return buffer.length();
+	}
+
+	public int getConstraints() {
+		return constraints;
+	}
+
+	public void setConstraints(int constraints) {
+		this.constraints = constraints;
+	}
+}
@@ -0,0 +1,23 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.lcdui;
+
+/**
+ * Headless stand-in for the MIDP Ticker.
+ */
+public class Ticker {
+	private String string;
+
+	public Ticker(String str) {
+		setString(str);
+	}
+
+	public String getString() {
+		return string;
+	}
+
+	public void setString(String str) {
+		this.string = str;
+	}
+}
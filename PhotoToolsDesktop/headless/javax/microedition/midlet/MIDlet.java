@@ -0,0 +1,64 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.midlet;
+
+import java.util.Hashtable;
+
+/**
+ * Headless stand-in for the MIDP MIDlet. The lifecycle methods are exposed
+ * through {@link #start()}, {@link #pause()} and {@link #destroy()} so a
+ * desktop driver can move the application through its states.
+ */
+public abstract class MIDlet {
+	private Hashtable properties = new Hashtable();
+	private boolean destroyed;
+
+	protected MIDlet() {
+		super();
+	}
+
+	protected abstract void startApp() throws MIDletStateChangeException;
+
+	protected abstract void pauseApp();
+
+	protected abstract void destroyApp(boolean unconditional)
+			throws MIDletStateChangeException;
+
+	public final void notifyDestroyed() {
+		destroyed = true;
+	}
+
+	public final void notifyPaused() {
+
+	}
+
+	public final void resumeRequest() {
+
+	}
+
+	public final String getAppProperty(String key) {
+		return (String) properties.get(key);
+	}
+
+	public final void setAppProperty(String key, String value) {
+		properties.put(key, value);
+	}
+
+	public final boolean isDestroyed() {
+		return destroyed;
+	}
+
+	public final void start() throws MIDletStateChangeException {
+		startApp();
+	}
+
+	public final void pause() {
+		pauseApp();
+	}
+
+	public final void destroy() throws MIDletStateChangeException {
+		destroyApp(true);
+		destroyed = true;
+	}
+}
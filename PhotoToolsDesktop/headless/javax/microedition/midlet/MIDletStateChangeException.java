@@ -0,0 +1,17 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.midlet;
+
+/**
+ * Headless stand-in for the MIDP MIDletStateChangeException.
+ */
+public class MIDletStateChangeException extends Exception {
+	public MIDletStateChangeException() {
+		super();
+	}
+
+	public MIDletStateChangeException(String message) {
+		super(message);
+	}
+}
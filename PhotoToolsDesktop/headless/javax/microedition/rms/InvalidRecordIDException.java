@@ -0,0 +1,17 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.rms;
+
+/**
+ * Headless stand-in for the MIDP InvalidRecordIDException.
+ */
+public class InvalidRecordIDException extends RecordStoreException {
+	public InvalidRecordIDException() {
+		super();
+	}
+
+	public InvalidRecordIDException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,15 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.rms;
+
+/**
+ * Headless stand-in for the MIDP RecordComparator.
+ */
+public interface RecordComparator {
+	int EQUIVALENT = 0;
+	int FOLLOWS = 1;
+	int PRECEDES = -1;
+
+	int compare(byte[] rec1, byte[] rec2);
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.rms;
+
+/**
+ * Headless stand-in for the MIDP RecordEnumeration.
+ */
+public interface RecordEnumeration {
+	int numRecords();
+
+	byte[] nextRecord() throws RecordStoreException;
+
+	int nextRecordId() throws InvalidRecordIDException;
+
+	byte[] previousRecord() throws RecordStoreException;
+
+	int previousRecordId() throws InvalidRecordIDException;
+
+	boolean hasNextElement();
+
+	boolean hasPreviousElement();
+
+	void reset();
+
+	void rebuild();
+
+	void keepUpdated(boolean keepUpdated);
+
+	boolean isKeptUpdated();
+
+	void destroy();
+}
@@ -0,0 +1,11 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.rms;
+
+/**
+ * Headless stand-in for the MIDP RecordFilter.
+ */
+public interface RecordFilter {
+	boolean matches(byte[] candidate);
+}
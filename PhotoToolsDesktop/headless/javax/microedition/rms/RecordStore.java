@@ -0,0 +1,275 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.rms;
+
+import java.util.Hashtable;
+import java.util.Vector;
+
+/**
+ * Headless, in-memory stand-in for the MIDP RecordStore. Stores live for the
+ * lifetime of the JVM. Opens, reads and writes are counted so benchmarks can
+ * report how often the application touches persistent storage.
+ */
+public class RecordStore {
+	private static final Hashtable STORES = new Hashtable();
+
+	private static int openCount;
+	private static int readCount;
+	private static int writeCount;
+
+	private String name;
+	private Vector ids = new Vector();
+	private Hashtable records = new Hashtable();
+	private int nextRecordId = 1;
+	private int openReferences;
+
+	private RecordStore(String name) {
+		this.name = name;
+	}
+
+	public static synchronized RecordStore openRecordStore(
+			String recordStoreName, boolean createIfNecessary)
+			throws RecordStoreException {
+		RecordStore recordStore = (RecordStore) STORES.get(recordStoreName);
+
+		if (recordStore == null) {
+			if (!createIfNecessary) {
+				throw new RecordStoreNotFoundException(recordStoreName);
+			}
+
+			recordStore = new RecordStore(recordStoreName);
+			STORES.put(recordStoreName, recordStore);
+		}
+
+		recordStore.openReferences++;
+		openCount++;
+
+		return recordStore;
+	}
+
+	public static synchronized void deleteRecordStore(String recordStoreName)
+			throws RecordStoreException {
+		if (STORES.remove(recordStoreName) == null) {
+			throw new RecordStoreNotFoundException(recordStoreName);
+		}
+	}
+
+	public static synchronized String[] listRecordStores() {
+		if (STORES.isEmpty()) {
+			return null;
+		}
+
+		String[] names = new String[STORES.size()];
+		int i = 0;
+
+		for (java.util.Enumeration e = STORES.keys(); e.hasMoreElements();) {
+			names[i++] = (String) e.nextElement();
+		}
+
+		return names;
+	}
+
+	/**
+	 * Forget every record store. Not part of MIDP; used by tests and
+	 * benchmarks to start from a clean slate.
+	 */
+	public static synchronized void reset() {
+		STORES.clear();
+		resetCounters();
+	}
+
+	public static synchronized void resetCounters() {
+		openCount = 0;
+		readCount = 0;
+		writeCount = 0;
+	}
+
+	public static int getOpenCount() {
+		return openCount;
+	}
+
+	public static int getReadCount() {
+		return readCount;
+	}
+
+	public static int getWriteCount() {
+		return writeCount;
+	}
+
+	public synchronized void closeRecordStore() throws RecordStoreException {
+		if (openReferences <= 0) {
+			throw new RecordStoreNotOpenException(name);
+		}
+
+		openReferences--;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public synchronized int getNumRecords() throws RecordStoreNotOpenException {
+		checkOpen();
+		return ids.size();
+	}
+
+	public synchronized int getNextRecordID() throws RecordStoreException {
+		checkOpen();
+		return nextRecordId;
+	}
+
+	public synchronized int addRecord(byte[] data, int offset, int numBytes)
+			throws RecordStoreException {
+		checkOpen();
+
+		byte[] copy = new byte[numBytes];
+
+		if (numBytes > 0) {
+			System.arraycopy(data, offset, copy, 0, numBytes);
+		}
+
+		int id = nextRecordId++;
+		Integer key = new Integer(id);
+		ids.addElement(key);
+		records.put(key, copy);
+		writeCount++;
+
+		return id;
+	}
+
+	public synchronized void setRecord(int recordId, byte[] newData,
+			int offset, int numBytes) throws RecordStoreException {
+		checkOpen();
+
+		Integer key = new Integer(recordId);
+
+		if (!records.containsKey(key)) {
+			throw new InvalidRecordIDException(String.valueOf(recordId));
+		}
+
+		byte[] copy = new byte[numBytes];
+		System.arraycopy(newData, offset, copy, 0, numBytes);
+		records.put(key, copy);
+		writeCount++;
+	}
+
+	public synchronized void deleteRecord(int recordId)
+			throws RecordStoreException {
+		checkOpen();
+
+		Integer key = new Integer(recordId);
+
+		if (records.remove(key) == null) {
+			throw new InvalidRecordIDException(String.valueOf(recordId));
+		}
+
+		ids.removeElement(key);
+		writeCount++;
+	}
+
+	public synchronized byte[] getRecord(int recordId)
+			throws RecordStoreException {
+		checkOpen();
+
+		byte[] data = (byte[]) records.get(new Integer(recordId));
+
+		if (data == null) {
+			throw new InvalidRecordIDException(String.valueOf(recordId));
+		}
+
+		readCount++;
+
+		byte[] copy = new byte[data.length];
+		System.arraycopy(data, 0, copy, 0, data.length);
+
+		return copy;
+	}
+
+	public synchronized int getRecordSize(int recordId)
+			throws RecordStoreException {
+		return getRecord(recordId).length;
+	}
+
+	public synchronized RecordEnumeration enumerateRecords(
+			RecordFilter filter, RecordComparator comparator,
+			boolean keepUpdated) throws RecordStoreNotOpenException {
+		checkOpen();
+
+		final Vector snapshot = new Vector();
+
+		for (int i = 0; i < ids.size(); i++) {
+			Integer id = (Integer) ids.elementAt(i);
+
+			if (filter == null || filter.matches((byte[]) records.get(id))) {
+				snapshot.addElement(id);
+			}
+		}
+
+		return new RecordEnumeration() {
+			private int index;
+
+			public int numRecords() {
+				return snapshot.size();
+			}
+
+			public byte[] nextRecord() throws RecordStoreException {
+				return getRecord(nextRecordId());
+			}
+
+			public int nextRecordId() throws InvalidRecordIDException {
+				if (index >= snapshot.size()) {
+					throw new InvalidRecordIDException();
+				}
+
+				return ((Integer) snapshot.elementAt(index++)).intValue();
+			}
+
+			public byte[] previousRecord() throws RecordStoreException {
+				return getRecord(previousRecordId());
+			}
+
+			public int previousRecordId() throws InvalidRecordIDException {
+				if (index <= 0) {
+					throw new InvalidRecordIDException();
+				}
+
+				return ((Integer) snapshot.elementAt(--index)).intValue();
+			}
+
+			public boolean hasNextElement() {
+				return index < snapshot.size();
+			}
+
+			public boolean hasPreviousElement() {
+				return index > 0;
+			}
+
+			public void reset() {
+				index = 0;
+			}
+
+			public void rebuild() {
+
+			}
+
+			public void keepUpdated(boolean keepUpdated) {
+
+			}
+
+			public boolean isKeptUpdated() {
+				return false;
+			}
+
+			public void destroy() {
+
+			}
+		};
+	}
+
+	private void checkOpen() throws RecordStoreNotOpenException {
+		if (openReferences <= 0) {
+			throw new RecordStoreNotOpenException(name);
+		}
+	}
+}
@@ -0,0 +1,17 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.rms;
+
+/**
+ * Headless stand-in for the MIDP RecordStoreException.
+ */
+public class RecordStoreException extends Exception {
+	public RecordStoreException() {
+		super();
+	}
+
+	public RecordStoreException(String message) {
+		super(message);
+	}
+}
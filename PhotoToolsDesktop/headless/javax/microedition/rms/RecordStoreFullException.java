@@ -0,0 +1,17 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.rms;
+
+/**
+ * Headless stand-in for the MIDP RecordStoreFullException.
+ */
+public class RecordStoreFullException extends RecordStoreException {
+	public RecordStoreFullException() {
+		super();
+	}
+
+	public RecordStoreFullException(String message) {
+		super(message);
+	}
+}
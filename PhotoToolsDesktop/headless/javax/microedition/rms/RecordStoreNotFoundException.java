@@ -0,0 +1,17 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.rms;
+
+/**
+ * Headless stand-in for the MIDP RecordStoreNotFoundException.
+ */
+public class RecordStoreNotFoundException extends RecordStoreException {
+	public RecordStoreNotFoundException() {
+		super();
+	}
+
+	public RecordStoreNotFoundException(String message) {
+		super(message);
+	}
+}
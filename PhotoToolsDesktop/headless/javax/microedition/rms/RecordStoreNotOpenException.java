@@ -0,0 +1,17 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package javax.microedition.rms;
+
+/**
+ * Headless stand-in for the MIDP RecordStoreNotOpenException.
+ */
+public class RecordStoreNotOpenException extends RecordStoreException {
+	public RecordStoreNotOpenException() {
+		super();
+	}
+
+	public RecordStoreNotOpenException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import phototools.BinaryCameraDatabase;
+import phototools.Camera;
+import phototools.XmlCameraDatabase;
+
+/**
+ * Compile the XML camera database into the binary one read by
+ * {@link BinaryCameraDatabase}. Run it whenever res/cameras.xml changes:
+ * 
+ * <pre>
+ * java phototools.tools.CameraDatabaseCompiler res/cameras.xml res/cameras.bin
+ * </pre>
+ */
+public class CameraDatabaseCompiler {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("usage: CameraDatabaseCompiler cameras.xml"
+					+ " cameras.bin");
+			System.exit(1);
+		}
+
+		Camera[] cameras = readXml(args[0]);
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(
+				args[1]));
+
+		try {
+			write(cameras, out);
+		} finally {
+			out.close();
+		}
+
+		System.out.println("compiled " + cameras.length + " cameras into "
+				+ args[1]);
+	}
+
+	/**
+	 * @param path
+	 *            String path of an XML camera database
+	 * @return array of every Camera in it
+	 */
+	public static Camera[] readXml(final String path) throws IOException {
+		return new XmlCameraDatabase(path) {
+			protected InputStream open() throws IOException {
+				return new FileInputStream(path);
+			}
+		}.readCameras();
+	}
+
+	/**
+	 * Write the cameras in the format read by {@link BinaryCameraDatabase}.
+	 * 
+	 * @param cameras
+	 *            array of Camera
+	 * @param out
+	 *            OutputStream to write to, left open
+	 */
+	public static void write(Camera[] cameras, OutputStream out)
+			throws IOException {
+		ByteArrayOutputStream pool = new ByteArrayOutputStream();
+		DataOutputStream poolOut = new DataOutputStream(pool);
+		DataOutputStream data = new DataOutputStream(out);
+
+		data.writeInt(BinaryCameraDatabase.MAGIC);
+		data.writeByte(BinaryCameraDatabase.VERSION);
+		data.writeInt(cameras.length);
+
+		for (int i = 0; i < cameras.length; i++) {
+			data.writeInt(pool.size());
+			data.writeDouble(cameras[i].getCircleOfConfusion());
+			data.writeDouble(cameras[i].getFrameWidth());
+			data.writeDouble(cameras[i].getFrameHeight());
+
+			poolOut.writeUTF(cameras[i].getModel());
+		}
+
+		poolOut.flush();
+		pool.writeTo(data);
+		data.flush();
+	}
+}
@@ -0,0 +1,464 @@
+/**
+ * Copyright 2008, Timothy J. Stavenger
+ */
+package phototools.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import phototools.Aperture;
+import phototools.BatchCalculator;
+import phototools.Camera;
+import phototools.utility.DoubleFormatter;
+
+/**
+ * Generate complete depth of field tables: for every camera, every focal
+ * length from 8mm to 800mm, every third stop aperture and 1000 focus
+ * distances spaced evenly on a logarithmic scale from 1m to 1000m, the
+ * hyperfocal distance and the near and far limits, calculated by
+ * {@link BatchCalculator}.
+ * 
+ * <pre>
+ * java phototools.tools.DepthOfFieldTableGenerator csv|binary path [threads=n] [focalLengths=from-to]
+ * </pre>
+ * 
+ * The table is calculated in blocks of one camera and focal length. Blocks
+ * are calculated and encoded on a ForkJoinPool, split further by aperture,
+ * and written in order as each one completes, with at most a few blocks per
+ * thread in flight; so the table is never held in memory, and the output is
+ * the same whatever the number of threads.
+ * 
+ * CSV rows are camera, focal length, aperture, focus distance, hyperfocal
+ * distance, near limit and far limit, distances in meters with three
+ * decimals and a far limit of inf at or beyond the hyperfocal distance.
+ * 
+ * The binary format is written with DataOutputStream: the int
+ * {@link #MAGIC}, the byte {@link #VERSION}, the aperture count and each
+ * f-number as a float, the focus distance count and each distance as a
+ * float. Then for each block the camera model in UTF, the focal length as a
+ * short, each aperture's hyperfocal distance as a float, and for each
+ * aperture and focus distance the near and far limits as floats. Distances
+ * are in meters, and a negative far limit is infinite.
+ */
+public class DepthOfFieldTableGenerator {
+	/** "DoFT" */
+	public static final int MAGIC = 0x446f4654;
+
+	public static final byte VERSION = 1;
+
+	private static final int MINIMUM_FOCAL_LENGTH = 8;
+	private static final int MAXIMUM_FOCAL_LENGTH = 800;
+
+	private static final int FOCUS_DISTANCES = 1000;
+
+	/** Focus distances in millimeters */
+	private static final double MINIMUM_FOCUS_DISTANCE = 1000;
+	private static final double MAXIMUM_FOCUS_DISTANCE = 1000000;
+
+	/** Blocks in flight per thread */
+	private static final int WINDOW_PER_THREAD = 2;
+
+	/** Rows below which a block is not split further */
+	private static final int SPLIT_ROWS = 4096;
+
+	/** Digits after the decimal point of CSV distances */
+	private static final int PRECISION = 3;
+
+	private final Camera[] cameras;
+	private final int minimumFocalLength;
+	private final int maximumFocalLength;
+	private final Format format;
+
+	/** Aperture and focus distance of every row of a block */
+	private final double[] apertures;
+	private final double[] focusDistances;
+	private final double[] formattedApertures;
+
+	/**
+	 * @param cameras
+	 *            Camera[] cameras to generate tables for, in order
+	 * @param minimumFocalLength
+	 *            int first focal length
+	 * @param maximumFocalLength
+	 *            int last focal length
+	 * @param format
+	 *            Format to write
+	 */
+	DepthOfFieldTableGenerator(Camera[] cameras,
+			int minimumFocalLength, int maximumFocalLength, Format format) {
+		this.cameras = cameras;
+		this.minimumFocalLength = minimumFocalLength;
+		this.maximumFocalLength = maximumFocalLength;
+		this.format = format;
+
+		Aperture aperture = new Aperture();
+
+		aperture.setThirdStop();
+
+		int rows = aperture.getStepCount() * FOCUS_DISTANCES;
+
+		formattedApertures = aperture.getFormattedApertures();
+		apertures = new double[rows];
+		focusDistances = new double[rows];
+
+		double ratio = MAXIMUM_FOCUS_DISTANCE / MINIMUM_FOCUS_DISTANCE;
+
+		for (int i = 0; i < rows; i++) {
+			apertures[i] = aperture.calculateAperture(i / FOCUS_DISTANCES);
+			focusDistances[i] = MINIMUM_FOCUS_DISTANCE
+					* Math.pow(ratio, (double) (i % FOCUS_DISTANCES)
+							/ (FOCUS_DISTANCES - 1));
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2
+				|| !("csv".equals(args[0]) || "binary".equals(args[0]))) {
+			System.err.println("usage: DepthOfFieldTableGenerator csv|binary"
+					+ " path [threads=n] [focalLengths=from-to]");
+			System.exit(1);
+		}
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		int minimumFocalLength = MINIMUM_FOCAL_LENGTH;
+		int maximumFocalLength = MAXIMUM_FOCAL_LENGTH;
+
+		for (int i = 2; i < args.length; i++) {
+			if (args[i].startsWith("threads=")) {
+				threads = Integer.parseInt(args[i].substring(8));
+			} else if (args[i].startsWith("focalLengths=")) {
+				String range = args[i].substring(13);
+				int separator = range.indexOf('-');
+
+				minimumFocalLength = Integer.parseInt(range.substring(0,
+						separator));
+				maximumFocalLength = Integer.parseInt(range
+						.substring(separator + 1));
+			} else {
+				throw new IllegalArgumentException(args[i]);
+			}
+		}
+
+		Format format = "csv".equals(args[0]) ? (Format) new CsvFormat()
+				: new BinaryFormat();
+		DepthOfFieldTableGenerator generator = new DepthOfFieldTableGenerator(
+				Camera.getCameras(), minimumFocalLength, maximumFocalLength,
+				format);
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(
+				args[1]), 1 << 16);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		long start = System.currentTimeMillis();
+
+		try {
+			generator.generate(pool, out);
+		} finally {
+			out.close();
+			pool.shutdown();
+		}
+
+		System.out.println("wrote " + generator.getRowCount() + " rows to "
+				+ args[1] + " in " + (System.currentTimeMillis() - start)
+				+ " ms on " + threads + " threads");
+	}
+
+	/**
+	 * @return long rows in the whole table
+	 */
+	public long getRowCount() {
+		return (long) getBlockCount() * apertures.length;
+	}
+
+	private int getBlockCount() {
+		return cameras.length * (maximumFocalLength - minimumFocalLength + 1);
+	}
+
+	/**
+	 * Calculate the table on the pool and write it.
+	 * 
+	 * @param pool
+	 *            ForkJoinPool to calculate and encode blocks on
+	 * @param out
+	 *            OutputStream to write to, left open
+	 */
+	public void generate(ForkJoinPool pool, OutputStream out)
+			throws IOException {
+		int blocks = getBlockCount();
+		int window = Math.min(blocks, pool.getParallelism()
+				* WINDOW_PER_THREAD);
+		Block[] slots = new Block[window];
+		ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[window];
+
+		format.writeHeader(this, out);
+
+		for (int i = 0; i < window; i++) {
+			slots[i] = new Block(apertures.length);
+			tasks[i] = submit(pool, slots[i], i);
+		}
+
+		// write the blocks in order; each slot is reused for the block
+		// window places after the one just written
+		for (int i = 0; i < blocks; i++) {
+			int slot = i % window;
+
+			tasks[slot].join();
+			slots[slot].encoded.writeTo(out);
+
+			if (i + window < blocks) {
+				tasks[slot] = submit(pool, slots[slot], i + window);
+			}
+		}
+
+		out.flush();
+	}
+
+	private ForkJoinTask<?> submit(ForkJoinPool pool, Block block, int index) {
+		int focalLengths = maximumFocalLength - minimumFocalLength + 1;
+
+		block.camera = cameras[index / focalLengths];
+		block.focalLength = minimumFocalLength + index % focalLengths;
+
+		return pool.submit(new BlockTask(block, 0, apertures.length, true));
+	}
+
+	/**
+	 * @param farLimit
+	 *            double far limit as calculated by BatchCalculator
+	 * @return boolean true if it stands for infinity: negative beyond the
+	 *         hyperfocal distance, or infinite when focused exactly at it
+	 */
+	static boolean isInfinite(double farLimit) {
+		return !(farLimit >= 0 && farLimit < Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * The results for one camera and focal length, and their encoding.
+	 * Reused once written.
+	 */
+	static class Block {
+		Camera camera;
+		int focalLength;
+
+		final int[] focalLengths;
+		final double[] hyperfocalDistances;
+		final double[] nearLimits;
+		final double[] farLimits;
+		final Encoding encoded = new Encoding();
+
+		Block(int rows) {
+			focalLengths = new int[rows];
+			hyperfocalDistances = new double[rows];
+			nearLimits = new double[rows];
+			farLimits = new double[rows];
+		}
+	}
+
+	/**
+	 * Calculate a range of the rows of a block, splitting it in halves on
+	 * aperture boundaries while it is large. The root task encodes the block
+	 * once every row is calculated.
+	 */
+	private class BlockTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Block block;
+		private final int start;
+		private final int end;
+		private final boolean root;
+
+		BlockTask(Block block, int start, int end, boolean root) {
+			this.block = block;
+			this.start = start;
+			this.end = end;
+			this.root = root;
+		}
+
+		protected void compute() {
+			int rows = end - start;
+
+			if (rows > SPLIT_ROWS && rows > FOCUS_DISTANCES) {
+				int middle = start + rows / FOCUS_DISTANCES / 2
+						* FOCUS_DISTANCES;
+
+				invokeAll(new BlockTask(block, start, middle, false),
+						new BlockTask(block, middle, end, false));
+			} else {
+				for (int i = start; i < end; i++) {
+					block.focalLengths[i] = block.focalLength;
+				}
+
+				BatchCalculator.calculate(block.camera, block.focalLengths,
+						apertures, focusDistances, start, rows,
+						block.hyperfocalDistances, block.nearLimits,
+						block.farLimits, null, null);
+			}
+
+			if (root) {
+				block.encoded.reset();
+
+				try {
+					format.encode(DepthOfFieldTableGenerator.this, block);
+				} catch (IOException e) {
+					// an Encoding does not throw
+					throw new IllegalStateException(e.toString());
+				}
+			}
+		}
+	}
+
+	/**
+	 * ByteArrayOutputStream which also takes ASCII text without copying it
+	 * into a String first.
+	 */
+	static class Encoding extends ByteArrayOutputStream {
+		Encoding() {
+			super(1 << 16);
+		}
+
+		void writeAscii(StringBuffer text) {
+			int length = text.length();
+
+			if (count + length > buf.length) {
+				byte[] grown = new byte[Math.max(buf.length * 2, count
+						+ length)];
+
+				System.arraycopy(buf, 0, grown, 0, count);
+				buf = grown;
+			}
+
+			for (int i = 0; i < length; i++) {
+				buf[count++] = (byte) text.charAt(i);
+			}
+		}
+	}
+
+	/**
+	 * How the table is written.
+	 */
+	interface Format {
+		void writeHeader(DepthOfFieldTableGenerator generator, OutputStream out)
+				throws IOException;
+
+		/**
+		 * Encode the block into block.encoded. Called on the pool, so it
+		 * must not share state between blocks.
+		 */
+		void encode(DepthOfFieldTableGenerator generator, Block block)
+				throws IOException;
+	}
+
+	static class CsvFormat implements Format {
+		public void writeHeader(DepthOfFieldTableGenerator generator,
+				OutputStream out) throws IOException {
+			out.write(("camera,focal length,aperture,focus distance,"
+					+ "hyperfocal distance,near limit,far limit\n")
+					.getBytes("US-ASCII"));
+		}
+
+		public void encode(DepthOfFieldTableGenerator generator, Block block)
+				throws IOException {
+			byte[] camera = quote(block.camera.getModel()).getBytes("UTF-8");
+			StringBuffer text = new StringBuffer(64);
+
+			for (int i = 0; i < generator.apertures.length; i++) {
+				text.setLength(0);
+				text.append(',').append(block.focalLength).append(',');
+				DoubleFormatter.appendRounded(text,
+						generator.formattedApertures[i / FOCUS_DISTANCES], 1)
+						.append(',');
+				appendMeters(text, generator.focusDistances[i]).append(',');
+				appendMeters(text, block.hyperfocalDistances[i]).append(',');
+				appendMeters(text, block.nearLimits[i]).append(',');
+
+				if (isInfinite(block.farLimits[i])) {
+					text.append("inf");
+				} else {
+					appendMeters(text, block.farLimits[i]);
+				}
+
+				text.append('\n');
+				block.encoded.write(camera);
+				block.encoded.writeAscii(text);
+			}
+		}
+
+		private static StringBuffer appendMeters(StringBuffer text,
+				double millimeters) {
+			return DoubleFormatter.appendRounded(text, millimeters / 1000,
+					PRECISION);
+		}
+
+		/**
+		 * @return String the model, quoted if it holds a comma or quote
+		 */
+		private static String quote(String model) {
+			if (model.indexOf(',') < 0 && model.indexOf('"') < 0) {
+				return model;
+			}
+
+			StringBuffer quoted = new StringBuffer("\"");
+
+			for (int i = 0; i < model.length(); i++) {
+				char c = model.charAt(i);
+
+				if (c == '"') {
+					quoted.append('"');
+				}
+
+				quoted.append(c);
+			}
+
+			return quoted.append('"').toString();
+		}
+	}
+
+	static class BinaryFormat implements Format {
+		public void writeHeader(DepthOfFieldTableGenerator generator,
+				OutputStream out) throws IOException {
+			DataOutputStream data = new DataOutputStream(out);
+			int apertures = generator.formattedApertures.length;
+
+			data.writeInt(MAGIC);
+			data.writeByte(VERSION);
+			data.writeShort(apertures);
+
+			for (int i = 0; i < apertures; i++) {
+				data.writeFloat((float) generator.apertures[i
+						* FOCUS_DISTANCES]);
+			}
+
+			data.writeShort(FOCUS_DISTANCES);
+
+			for (int i = 0; i < FOCUS_DISTANCES; i++) {
+				data.writeFloat((float) (generator.focusDistances[i] / 1000));
+			}
+
+			data.flush();
+		}
+
+		public void encode(DepthOfFieldTableGenerator generator, Block block)
+				throws IOException {
+			DataOutputStream data = new DataOutputStream(block.encoded);
+			int rows = generator.apertures.length;
+
+			data.writeUTF(block.camera.getModel());
+			data.writeShort(block.focalLength);
+
+			for (int i = 0; i < rows; i += FOCUS_DISTANCES) {
+				data.writeFloat((float) (block.hyperfocalDistances[i] / 1000));
+			}
+
+			for (int i = 0; i < rows; i++) {
+				data.writeFloat((float) (block.nearLimits[i] / 1000));
+				data.writeFloat(isInfinite(block.farLimits[i]) ? -1
+						: (float) (block.farLimits[i] / 1000));
+			}
+		}
+	}
+}